@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Class to give access to the fields of one row of a csv file, the same 
+ * object is reused for every row so values must be copied out to be kept
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class CSVRow {
+    // Declare member variables
+    private byte[] bytes = new byte[1024];
+    private int length;
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int size;
+    private long rowNumber;
+    
+    /**
+     * Getter for size
+     * @return number of fields in the row
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Getter for row number
+     * @return number of the row in the file starting at 0 for the heading
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+    
+    /**
+     * Method to test if a field is missing or empty
+     * @param index of the field
+     * @return true if the field is missing or empty
+     */
+    public boolean isEmpty(int index) {
+        return index >= size || starts[index] == ends[index];
+    }
+    
+    /**
+     * Method to test a field against a text without creating a string
+     * @param index of the field
+     * @param text to compare with
+     * @return true if the field has the same text
+     */
+    public boolean matches(int index, String text) {
+        if (index >= size) {
+            return false;
+        }
+        byte[] other = text.getBytes(StandardCharsets.UTF_8);
+        return Arrays.equals(bytes, starts[index], ends[index], other, 0, 
+                other.length);
+    }
+    
+    /**
+     * Method to get a field as a string
+     * @param index of the field
+     * @return text of the field, empty if the field is missing
+     */
+    public String getString(int index) {
+        if (index >= size) {
+            return "";
+        }
+        return new String(bytes, starts[index], ends[index] - starts[index], 
+                StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Method to get a number field as a long, decimals are dropped
+     * @param index of the field
+     * @param defaultValue to use for a missing or empty field
+     * @return value of the field
+     * @throws NumberFormatException if the field is not a number
+     */
+    public long getLong(int index, long defaultValue) {
+        if (isEmpty(index)) {
+            return defaultValue;
+        }
+        // read plain decimals without creating a string
+        int position = starts[index];
+        int end = ends[index];
+        boolean negative = bytes[position] == '-';
+        if (negative || bytes[position] == '+') {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (position < end && bytes[position] >= '0' && 
+                bytes[position] <= '9' && digits < 18) {
+            value = value * 10 + (bytes[position++] - '0');
+            digits++;
+        }
+        if (digits > 0 && position < end && bytes[position] == '.') {
+            position++;
+            while (position < end && bytes[position] >= '0' && 
+                    bytes[position] <= '9') {
+                position++;
+            }
+        }
+        if (digits > 0 && position == end) {
+            return negative ? -value : value;
+        }
+        // anything else such as exponents is read as a double
+        return (long) Double.parseDouble(getString(index));
+    }
+    
+    /**
+     * Method to get a number field as a double
+     * @param index of the field
+     * @param defaultValue to use for a missing or empty field
+     * @return value of the field
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double getDouble(int index, double defaultValue) {
+        if (isEmpty(index)) {
+            return defaultValue;
+        }
+        return Double.parseDouble(getString(index));
+    }
+    
+    /**
+     * Method to start a new row
+     * @param rowNumber of the new row
+     */
+    void reset(long rowNumber) {
+        this.rowNumber = rowNumber;
+        length = 0;
+        size = 0;
+        starts[0] = 0;
+    }
+    
+    /**
+     * Method to add a byte to the current field
+     * @param b byte to add
+     */
+    void append(byte b) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, length * 2);
+        }
+        bytes[length++] = b;
+    }
+    
+    /**
+     * Method to end the current field and start the next one
+     */
+    void endField() {
+        if (size + 1 == starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        ends[size++] = length;
+        starts[size] = length;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Class to stream a RFC 4180 csv file row by row from a memory mapped file,
+ * so files of any size are read in constant memory
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class CSVStreamReader {
+    // Declare constants
+    private static final long DEFAULT_WINDOW = 256L * 1024 * 1024;
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    // Declare member variables
+    private final long window;
+    
+    /**
+     * Default constructor mapping 256 MB of the file at a time
+     */
+    public CSVStreamReader() {
+        this(DEFAULT_WINDOW);
+    }
+    
+    /**
+     * Constructor for the mapping size
+     * @param window number of bytes of the file mapped at a time
+     */
+    public CSVStreamReader(long window) {
+        this.window = window;
+    }
+    
+    /**
+     * Method to read a UTF-8 csv file and hand each row to a consumer, 
+     * quoted fields may hold commas, doubled quotes and line breaks and
+     * empty lines are skipped
+     * @param file to read
+     * @param consumer to receive each row, the row object is reused
+     * @return number of rows read including the heading
+     * @throws IOException if the file can not be read
+     */
+    public long read(Path file, Consumer<CSVRow> consumer) 
+            throws IOException {
+        // Declare variables
+        CSVRow row = new CSVRow();
+        long rows = 0;
+        int state = FIELD_START;
+        boolean content = false;
+        row.reset(rows);
+        try (FileChannel channel = FileChannel.open(file, 
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            // skip a byte order mark
+            if (size >= 3) {
+                MappedByteBuffer head = channel.map(
+                        FileChannel.MapMode.READ_ONLY, 0, 3);
+                if ((head.get(0) & 0xFF) == 0xEF && 
+                        (head.get(1) & 0xFF) == 0xBB && 
+                        (head.get(2) & 0xFF) == 0xBF) {
+                    position = 3;
+                }
+            }
+            // map the file a window at a time
+            while (position < size) {
+                long count = Math.min(window, size - position);
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY, position, count);
+                position += count;
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    switch (state) {
+                        case QUOTED:
+                            if (b == '"') {
+                                state = QUOTE_IN_QUOTED;
+                            } else {
+                                row.append(b);
+                            }
+                            continue;
+                        case QUOTE_IN_QUOTED:
+                            if (b == '"') {
+                                // doubled quote is a quote in the field
+                                row.append(b);
+                                state = QUOTED;
+                                continue;
+                            }
+                            break;
+                        case FIELD_START:
+                            if (b == '"') {
+                                state = QUOTED;
+                                content = true;
+                                continue;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    // outside quotes
+                    if (b == ',') {
+                        row.endField();
+                        state = FIELD_START;
+                        content = true;
+                    } else if (b == '\n') {
+                        if (content || state != FIELD_START) {
+                            row.endField();
+                            consumer.accept(row);
+                            rows++;
+                        }
+                        row.reset(rows);
+                        state = FIELD_START;
+                        content = false;
+                    } else if (b != '\r') {
+                        // a stray quote after a quoted field is kept
+                        row.append(b);
+                        state = UNQUOTED;
+                        content = true;
+                    }
+                }
+            }
+        }
+        // last row without a line break
+        if (content || state != FIELD_START) {
+            row.endField();
+            consumer.accept(row);
+            rows++;
+        }
+        return rows;
+    }
+}
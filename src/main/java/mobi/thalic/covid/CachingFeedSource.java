@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Class to read feeds from the internet through an on-disk cache, asking 
+ * the server with the saved ETag and Last-Modified validators whether the
+ * content changed and reading the saved copy when it did not
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class CachingFeedSource implements FeedSource {
+    // Declare constants
+    private static final String META_EXTENSION = ".meta";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String PROCESSED = "processed";
+    // Declare member variables
+    private final Path directory;
+    private final int timeoutMillis;
+    private final Set<String> notModified = new HashSet<>();
+    
+    /**
+     * Constructor for all variables
+     * @param directory to keep the cached content in
+     * @param timeoutMillis for connecting and for each read, 0 for none
+     */
+    public CachingFeedSource(Path directory, int timeoutMillis) {
+        this.directory = directory;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    public synchronized InputStream open(String url) throws IOException {
+        // Declare variables
+        Path file = FixtureFeedSource.getFixture(directory, url);
+        Path metaFile = getMetaFile(file);
+        Properties meta = readMeta(metaFile);
+        boolean cached = Files.isRegularFile(file);
+        notModified.remove(url);
+        // ask for the content only if it changed since the cached copy
+        HttpURLConnection connection = 
+                (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        if (cached) {
+            if (meta.getProperty(ETAG) != null) {
+                connection.setRequestProperty("If-None-Match", 
+                        meta.getProperty(ETAG));
+            }
+            if (meta.getProperty(LAST_MODIFIED) != null) {
+                connection.setRequestProperty("If-Modified-Since", 
+                        meta.getProperty(LAST_MODIFIED));
+            }
+        }
+        try {
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                // the cached copy may have been processed before
+                notModified.add(url);
+                return Files.newInputStream(file);
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + code + " for " + url);
+            }
+            // save the new content, unzipped, before handing it on
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "cache", ".tmp");
+            try (InputStream in = "gzip".equalsIgnoreCase(
+                    connection.getContentEncoding()) ? 
+                    new GZIPInputStream(connection.getInputStream()) : 
+                    connection.getInputStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            // save the validators of the new content
+            meta.clear();
+            if (connection.getHeaderField("ETag") != null) {
+                meta.setProperty(ETAG, connection.getHeaderField("ETag"));
+            }
+            if (connection.getHeaderField("Last-Modified") != null) {
+                meta.setProperty(LAST_MODIFIED, 
+                        connection.getHeaderField("Last-Modified"));
+            }
+            writeMeta(metaFile, meta);
+            return Files.newInputStream(file);
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    @Override
+    public synchronized boolean isUnchanged(String url, String processor) {
+        if (processor == null || !notModified.contains(url)) {
+            return false;
+        }
+        Path metaFile = getMetaFile(FixtureFeedSource.getFixture(directory, 
+                url));
+        try {
+            return Boolean.parseBoolean(readMeta(metaFile).getProperty(
+                    PROCESSED + "." + processor));
+        } catch (IOException e) {
+            // without the mark the content is processed again
+            return false;
+        }
+    }
+    
+    @Override
+    public synchronized void markProcessed(String url, String processor) {
+        Path metaFile = getMetaFile(FixtureFeedSource.getFixture(directory, 
+                url));
+        try {
+            Properties meta = readMeta(metaFile);
+            meta.setProperty(PROCESSED + "." + processor, "true");
+            writeMeta(metaFile, meta);
+        } catch (IOException e) {
+            // without the mark the content is only processed again
+        }
+    }
+    
+    /**
+     * Method to get the validators file of a cached file
+     * @param file of the cached content
+     * @return path of the validators file
+     */
+    private Path getMetaFile(Path file) {
+        return file.resolveSibling(file.getFileName() + META_EXTENSION);
+    }
+    
+    /**
+     * Method to read the validators of a cached file
+     * @param metaFile to read
+     * @return validators, empty if there are none
+     * @throws IOException if the file can not be read
+     */
+    private Properties readMeta(Path metaFile) throws IOException {
+        Properties meta = new Properties();
+        if (Files.isRegularFile(metaFile)) {
+            try (InputStream in = Files.newInputStream(metaFile)) {
+                meta.load(in);
+            }
+        }
+        return meta;
+    }
+    
+    /**
+     * Method to write the validators of a cached file
+     * @param metaFile to write
+     * @param meta validators to write
+     * @throws IOException if the file can not be written
+     */
+    private void writeMeta(Path metaFile, Properties meta) 
+            throws IOException {
+        try (OutputStream out = Files.newOutputStream(metaFile)) {
+            meta.store(out, null);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Class to share database connections, closing a borrowed connection
+ * returns it to the pool
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ConnectionPool {
+    // Declare constants
+    private final long MAX_BACKOFF = 10000L;
+    // Declare member variables
+    private final Results mResults;
+    private final String url;
+    private final String userName;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long maxWait;
+    private final int attempts;
+    private final long backoff;
+    private final int validationTimeout;
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private int total;
+    private boolean closed;
+    
+    /**
+     * Default constructor
+     * @param results of all activities
+     * @param url of the database
+     * @param userName of the database user
+     * @param password of the database user
+     * @param maxSize most connections open at once
+     * @param idleTimeout milliseconds before an unused connection is closed
+     * @param maxWait milliseconds to wait for a connection when all are used
+     * @param attempts to open a new connection
+     * @param backoff milliseconds before the first retry, doubled each retry
+     * @param validationTimeout seconds to wait when validating a connection
+     */
+    public ConnectionPool(Results results, String url, String userName, 
+            String password, int maxSize, long idleTimeout, long maxWait, 
+            int attempts, long backoff, int validationTimeout) {
+        mResults = results;
+        this.url = url;
+        this.userName = userName;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.maxWait = maxWait;
+        this.attempts = attempts;
+        this.backoff = backoff;
+        this.validationTimeout = validationTimeout;
+    }
+    
+    /**
+     * Method to borrow a valid connection from the pool
+     * @return connection or null if none could be opened in time
+     */
+    public Connection borrow() {
+        long deadline = System.currentTimeMillis() + maxWait;
+        while (true) {
+            IdleConnection idle = null;
+            synchronized (this) {
+                if (closed) {
+                    mResults.addResults("borrow pool is closed");
+                    return null;
+                }
+                // drop connections unused for too long
+                evictIdle();
+                if (!idleConnections.isEmpty()) {
+                    // most recently returned connection first
+                    idle = idleConnections.pollFirst();
+                } else if (total < maxSize) {
+                    total++;
+                } else {
+                    // wait for a connection to be returned
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        mResults.addResults("borrow no connection available in "
+                                + maxWait + " ms");
+                        return null;
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    continue;
+                }
+            }
+            if (idle == null) {
+                // open a new connection outside the lock
+                Connection conn = open();
+                if (conn == null) {
+                    discard(null);
+                    return null;
+                }
+                return wrap(conn);
+            }
+            // validate on borrow
+            if (isValid(idle.conn)) {
+                return wrap(idle.conn);
+            }
+            discard(idle.conn);
+        }
+    }
+    
+    /**
+     * Method to close every idle connection and refuse further borrows
+     */
+    public synchronized void close() {
+        closed = true;
+        for (IdleConnection idle : idleConnections) {
+            closeQuietly(idle.conn);
+            total--;
+        }
+        idleConnections.clear();
+        notifyAll();
+    }
+    
+    /**
+     * Method to open a new connection retrying with exponential backoff
+     * @return connection or null after all attempts
+     */
+    private Connection open() {
+        long delay = backoff;
+        for (int i = 1; i <= attempts; i++) {
+            try {
+                // Attempt to connect to database
+                return DriverManager.getConnection(url, userName, password);
+            } catch (SQLException e) {
+                mResults.addResults("connect " + e.getMessage());
+            }
+            if (i < attempts) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                delay = Math.min(delay * 2, MAX_BACKOFF);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Method to return a connection to the pool
+     * @param conn to return
+     */
+    private void release(Connection conn) {
+        boolean reusable;
+        try {
+            // leave the connection as a new one would be
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            reusable = !conn.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        synchronized (this) {
+            if (reusable && !closed) {
+                idleConnections.offerFirst(new IdleConnection(conn, 
+                        System.currentTimeMillis()));
+                notifyAll();
+                return;
+            }
+        }
+        discard(conn);
+    }
+    
+    /**
+     * Method to close a connection and free its place in the pool
+     * @param conn to close or null if it was never opened
+     */
+    private void discard(Connection conn) {
+        closeQuietly(conn);
+        synchronized (this) {
+            total--;
+            notifyAll();
+        }
+    }
+    
+    /**
+     * Method to close connections that have been idle too long, must be 
+     * called holding the lock
+     */
+    private void evictIdle() {
+        long oldest = System.currentTimeMillis() - idleTimeout;
+        Iterator<IdleConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            IdleConnection idle = iterator.next();
+            if (idle.since < oldest) {
+                iterator.remove();
+                closeQuietly(idle.conn);
+                total--;
+            }
+        }
+    }
+    
+    /**
+     * Method to test if a connection can still be used
+     * @param conn to test
+     * @return true if valid
+     */
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Method to close a connection ignoring errors
+     * @param conn to close
+     */
+    private void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                mResults.addResults("closeConnection " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Method to wrap a connection so closing it returns it to the pool
+     * @param conn to wrap
+     * @return pooled connection
+     */
+    private Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), 
+                new Class<?>[] { Connection.class }, 
+                new PooledConnection(conn));
+    }
+    
+    /**
+     * Class to hold a connection waiting in the pool
+     */
+    private static class IdleConnection {
+        private final Connection conn;
+        private final long since;
+        
+        IdleConnection(Connection conn, long since) {
+            this.conn = conn;
+            this.since = since;
+        }
+    }
+    
+    /**
+     * Class to pass calls to a borrowed connection until it is closed
+     */
+    private class PooledConnection implements InvocationHandler {
+        private final Connection conn;
+        private boolean returned;
+        
+        PooledConnection(Connection conn) {
+            this.conn = conn;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) 
+                throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(conn);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + conn.toString();
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection returned to pool");
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Arrays;
+
+/**
+ * Class to hold the totals of one date indexed by country or state id
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class DailyTotals {
+    // Declare constant
+    private final int INITIAL_CAPACITY = 256;
+    // Declare member variables
+    private final java.sql.Date date;
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+    private long[] cases = new long[INITIAL_CAPACITY];
+    private long[] deaths = new long[INITIAL_CAPACITY];
+    private long[] active = new long[INITIAL_CAPACITY];
+    
+    /**
+     * Default constructor
+     * @param date of the totals
+     */
+    public DailyTotals(java.sql.Date date) {
+        this.date = date;
+    }
+    
+    /**
+     * Method to set the totals of a location
+     * @param id of the country or state
+     * @param cases total cases
+     * @param deaths total deaths
+     * @param active total active cases
+     */
+    public void set(int id, long cases, long deaths, long active) {
+        if (id >= present.length) {
+            grow(id);
+        }
+        present[id] = true;
+        this.cases[id] = cases;
+        this.deaths[id] = deaths;
+        this.active[id] = active;
+    }
+    
+    /**
+     * Method to grow the columns to hold an id
+     * @param id to hold
+     */
+    private void grow(int id) {
+        int capacity = Math.max(present.length * 2, id + 1);
+        present = Arrays.copyOf(present, capacity);
+        cases = Arrays.copyOf(cases, capacity);
+        deaths = Arrays.copyOf(deaths, capacity);
+        active = Arrays.copyOf(active, capacity);
+    }
+    
+    /**
+     * Getter for date
+     * @return date of the totals
+     */
+    public java.sql.Date getDate() {
+        return date;
+    }
+    
+    /**
+     * Method to test for the totals of a location
+     * @param id of the country or state
+     * @return true if the location has totals
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+    
+    /**
+     * Getter for cases
+     * @param id of the country or state
+     * @return total cases or 0 if the location has no totals
+     */
+    public long getCases(int id) {
+        return contains(id) ? cases[id] : 0L;
+    }
+    
+    /**
+     * Getter for deaths
+     * @param id of the country or state
+     * @return total deaths or 0 if the location has no totals
+     */
+    public long getDeaths(int id) {
+        return contains(id) ? deaths[id] : 0L;
+    }
+    
+    /**
+     * Getter for active cases
+     * @param id of the country or state
+     * @return total active cases or 0 if the location has no totals
+     */
+    public long getActive(int id) {
+        return contains(id) ? active[id] : 0L;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Class to supply a level of the calculations from the database, the 
+ * country and state levels only differ in the queries they use
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class DatabaseRegionSource implements RegionSource {
+    
+    /**
+     * Interface to the query of the digests of a range of dates
+     */
+    public interface DigestReader {
+        
+        /**
+         * Method to get the digests of a range of dates
+         * @param conn connection to the database
+         * @param from first date
+         * @param to last date
+         * @return digests by epoch day or null if an error occurs
+         */
+        Map<Long, long[]> read(Connection conn, java.sql.Date from, 
+                java.sql.Date to);
+    }
+    
+    // Declare member variables
+    private final BiFunction<Connection, java.sql.Date, RegionSnapshot> 
+            snapshotReader;
+    private final BiFunction<Connection, java.sql.Date, RegionTotals> 
+            totalsReader;
+    private final BiFunction<Connection, List<Calculations>, Integer> 
+            calculationsWriter;
+    private final DigestReader digestReader;
+    
+    /**
+     * Default constructor
+     * @param snapshotReader to get the totals of every location for a date
+     * @param totalsReader to get the totals of the parent for a date
+     * @param calculationsWriter to write the calculations for a date
+     * @param digestReader to get the digests of a range of dates
+     */
+    public DatabaseRegionSource(
+            BiFunction<Connection, java.sql.Date, RegionSnapshot> 
+                    snapshotReader,
+            BiFunction<Connection, java.sql.Date, RegionTotals> totalsReader,
+            BiFunction<Connection, List<Calculations>, Integer> 
+                    calculationsWriter,
+            DigestReader digestReader) {
+        this.snapshotReader = snapshotReader;
+        this.totalsReader = totalsReader;
+        this.calculationsWriter = calculationsWriter;
+        this.digestReader = digestReader;
+    }
+    
+    /**
+     * Method to create the country level, its parent is the world
+     * @param databaseUtilities to read and write the country data
+     * @return country level
+     */
+    public static DatabaseRegionSource createCountrySource(
+            DatabaseUtilities databaseUtilities) {
+        return new DatabaseRegionSource(databaseUtilities::getCountrySnapshot,
+                databaseUtilities::getWorldData, 
+                databaseUtilities::insertCalculations,
+                databaseUtilities::getCountryDigests);
+    }
+    
+    /**
+     * Method to create the state level, its parent is the United States
+     * @param databaseUtilities to read and write the state data
+     * @return state level
+     */
+    public static DatabaseRegionSource createStateSource(
+            DatabaseUtilities databaseUtilities) {
+        return new DatabaseRegionSource(databaseUtilities::getStateSnapshot,
+                databaseUtilities::getUSAData, 
+                databaseUtilities::insertStateCalculations,
+                databaseUtilities::getStateDigests);
+    }
+    
+    /**
+     * Method to get the totals of every location of the level for a date
+     * @param conn connection to the database
+     * @param date of the totals
+     * @return snapshot of the totals or null if an error occurs
+     */
+    @Override
+    public RegionSnapshot getSnapshot(Connection conn, java.sql.Date date) {
+        return snapshotReader.apply(conn, date);
+    }
+    
+    /**
+     * Method to get the totals of the parent of the level for a date
+     * @param conn connection to the database
+     * @param date of the totals
+     * @return totals of the parent or null if an error occurs
+     */
+    @Override
+    public RegionTotals getTotals(Connection conn, java.sql.Date date) {
+        return totalsReader.apply(conn, date);
+    }
+    
+    /**
+     * Method to get the number of locations of the level and the sums of 
+     * their totals for each date of a range
+     * @param conn connection to the database
+     * @param from first date
+     * @param to last date
+     * @return digests by epoch day or null if an error occurs
+     */
+    @Override
+    public Map<Long, long[]> getDigests(Connection conn, java.sql.Date from,
+            java.sql.Date to) {
+        return digestReader.read(conn, from, to);
+    }
+    
+    /**
+     * Method to write the calculations of the level for a date
+     * @param conn connection to the database
+     * @param calcs calculations to write
+     * @return RETURN_OK or RETURN_ERROR of DatabaseUtilities
+     */
+    @Override
+    public int insertCalculations(Connection conn, List<Calculations> calcs) {
+        return calculationsWriter.apply(conn, calcs);
+    }
+}
@@ -26,18 +26,23 @@ package mobi.thalic.covid;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -45,8 +50,21 @@ import java.util.Map;
  */
 public class DatabaseUtilities {
     // declare constants
-    private final long DAY = 82800000L;
     private final int UNKNOWN_COUNTRY_ID = 261;
+    private final int DEFAULT_OWID_BATCH_SIZE = 1000;
+    // positions of the our world in data row counts
+    private final int PENDING = 0;
+    private final int WRITTEN = 1;
+    private final int FAILED = 2;
+    private final int DEFAULT_CALCULATION_THREADS = 4;
+    private final int DEFAULT_METRIC_THREADS = 4;
+    private final int DEFAULT_SCRAPE_TIMEOUT = 30000;
+    private final int DEFAULT_POOL_MAX_SIZE = 10;
+    private final int DEFAULT_POOL_IDLE_TIMEOUT = 300000;
+    private final int DEFAULT_POOL_MAX_WAIT = 60000;
+    private final int DEFAULT_CONNECT_ATTEMPTS = 10;
+    private final int DEFAULT_CONNECT_BACKOFF = 100;
+    private final int DEFAULT_VALIDATION_TIMEOUT = 5;
     private final SimpleDateFormat simpleDateFormat = 
             new SimpleDateFormat("yyyy-MM-dd");
     private final SimpleDateFormat simpleDateFormatAlt = 
@@ -55,8 +73,75 @@ public class DatabaseUtilities {
     public final int RETURN_TRUE = 1;
     public final int RETURN_OK = 2;
     public final int RETURN_ERROR = -1;
+    private final String INSERT_COUNTRY_DAILY_SQL = "INSERT INTO " 
+            + "country_dailies (country_id, cases, deaths, recovered, date) " 
+            + "VALUES (?, ?, ?, ?, ?);";
+    private final String INSERT_STATE_DAILY_SQL = "INSERT INTO state_dailies " 
+            + "(state_id, cases, deaths, recovered, date) " 
+            + "VALUES (?, ?, ?, ?, ?);";
+    private final String SELECT_COUNTRY_TOTALS_SQL = "SELECT country_id, " 
+            + "cases, deaths, active FROM country_totals WHERE date = ?;";
+    private final String SELECT_ALL_COUNTRY_TOTALS_SQL = "SELECT " 
+            + "country_id, date, cases, deaths, active FROM country_totals " 
+            + "ORDER BY country_id, date;";
+    private final String SELECT_ALL_STATE_TOTALS_SQL = "SELECT state_id, " 
+            + "`date`, cases, deaths, `active` FROM state_totals " 
+            + "ORDER BY state_id, `date`;";
+    private final int DAILY_BATCH_SIZE = 1000;
+    private final String SELECT_STATE_TOTALS_SQL = "SELECT state_id, cases, " 
+            + "deaths, `active` FROM state_totals WHERE `date` = ?;";
+    private final String INSERT_CALCULATIONS_SQL = "INSERT INTO "
+            + "country_json (country, `date`, population, population_world_rank, "
+            + "pc_of_world_population, mortality_rate, pc_of_world_deaths, "
+            + "pc_of_world_active_cases, pc_of_world_recovered, "
+            + "pc_of_world_total_cases, total_cases, new_cases, total_deaths, "
+            + "new_deaths, total_active_cases, total_deaths100k, "
+            + "total_deaths100k_rank, total_deaths100k_score, "
+            + "total_deaths100k_grade, total_active100k, total_active100k_rank, "
+            + "total_active100k_score, total_active100k_grade, "
+            + "total_cases100k, total_cases100k_rank, total_cases100k_score, "
+            + "total_cases100k_grade, new_cases100k_15days, "
+            + "new_cases100k_15days_rank, new_cases100k_15days_score, "
+            + "new_cases100k_15days_grade, new_deaths100k_15days, "
+            + "new_deaths100k_15days_rank, new_deaths100k_15days_score,"
+            + "new_deaths100k_15days_grade, new_cases100k_30days, "
+            + "new_cases100k_30days_rank, new_cases100k_30days_score, "
+            + "new_cases100k_30days_grade, new_deaths100k_30days, "
+            + "new_deaths100k_30days_rank, new_deaths100k_30days_score, "
+            + "new_deaths100k_30days_grade, overall_rank, overall_score, "
+            + "overall_grade) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?);";
+    private final String INSERT_STATE_CALCULATIONS_SQL = "INSERT INTO "
+            + "state_json (state, `date`, population, population_usa_rank, "
+            + "pc_of_usa_population, mortality_rate, pc_of_usa_deaths, "
+            + "pc_of_usa_active_cases, pc_of_usa_recovered, "
+            + "pc_of_usa_total_cases, total_cases, new_cases, total_deaths, "
+            + "new_deaths, total_active_cases, total_deaths100k, "
+            + "total_deaths100k_rank, total_deaths100k_score, "
+            + "total_deaths100k_grade, total_active100k, total_active100k_rank, "
+            + "total_active100k_score, total_active100k_grade, "
+            + "total_cases100k, total_cases100k_rank, total_cases100k_score, "
+            + "total_cases100k_grade, new_cases100k_15days, "
+            + "new_cases100k_15days_rank, new_cases100k_15days_score, "
+            + "new_cases100k_15days_grade, new_deaths100k_15days, "
+            + "new_deaths100k_15days_rank, new_deaths100k_15days_score,"
+            + "new_deaths100k_15days_grade, new_cases100k_30days, "
+            + "new_cases100k_30days_rank, new_cases100k_30days_score, "
+            + "new_cases100k_30days_grade, new_deaths100k_30days, "
+            + "new_deaths100k_30days_rank, new_deaths100k_30days_score, "
+            + "new_deaths100k_30days_grade, overall_rank, overall_score, "
+            + "overall_grade) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "?, ?, ?, ?, ?, ?, ?, ?, ?);";
     private final Results mResults;
     private final HashMap<String, String> configMap = new HashMap<>();
+    private final ConnectionPool mPool;
+    private final ReferenceDataCache mReferenceData;
+    private final String mCalculationsSql;
+    private final String mStateCalculationsSql;
     private Connection mConn;
     
     /**
@@ -66,11 +151,45 @@ public class DatabaseUtilities {
     public DatabaseUtilities(Results results) {
         getConfigParams();
         mResults = results;
+        mReferenceData = new ReferenceDataCache(mResults);
+        mPool = new ConnectionPool(mResults, configMap.get("DB_CONNECT"),
+                configMap.get("DB_USER_NAME"), 
+                configMap.get("DB_USER_PASSWORD"),
+                getPoolMaxSize(),
+                getConfigInt("DB_POOL_IDLE_TIMEOUT", DEFAULT_POOL_IDLE_TIMEOUT),
+                getConfigInt("DB_POOL_MAX_WAIT", DEFAULT_POOL_MAX_WAIT),
+                getConfigInt("DB_CONNECT_ATTEMPTS", DEFAULT_CONNECT_ATTEMPTS),
+                getConfigInt("DB_CONNECT_BACKOFF", DEFAULT_CONNECT_BACKOFF),
+                getConfigInt("DB_VALIDATION_TIMEOUT", 
+                        DEFAULT_VALIDATION_TIMEOUT));
+        // write calculations as upserts unless plain inserts are configured
+        // or the unique keys the upserts need cannot be put in place
+        if ("INSERT".equalsIgnoreCase(configMap.getOrDefault(
+                "CALCULATION_WRITE_MODE", "UPSERT").trim()) ||
+                !ensureUniqueKey("country_json", "country") ||
+                !ensureUniqueKey("state_json", "state")) {
+            mCalculationsSql = INSERT_CALCULATIONS_SQL;
+            mStateCalculationsSql = INSERT_STATE_CALCULATIONS_SQL;
+        } else {
+            mCalculationsSql = createUpsertSql(INSERT_CALCULATIONS_SQL, 2);
+            mStateCalculationsSql = 
+                    createUpsertSql(INSERT_STATE_CALCULATIONS_SQL, 2);
+        }
         mConn = databaseConnect();
     }
     
     /**
-     * Method to get the configuration items
+     * Method to get the configuration items, one KEY,value pair per line:
+     * DB_CONNECT jdbc url, add rewriteBatchedStatements=true to it so the 
+     * batched inserts are sent as multi-row INSERTs;
+     * DB_USER_NAME and DB_USER_PASSWORD;
+     * DB_POOL_MAX_SIZE, DB_POOL_IDLE_TIMEOUT, DB_POOL_MAX_WAIT, 
+     * DB_CONNECT_ATTEMPTS, DB_CONNECT_BACKOFF and DB_VALIDATION_TIMEOUT for 
+     * the connection pool;
+     * OWID_BATCH_SIZE rows per OWID daily and history batch, default 1000;
+     * CALCULATION_WRITE_MODE, CALCULATION_THREADS, PARALLEL_METRICS and 
+     * METRIC_THREADS for the calculations;
+     * SCRAPE_TIMEOUT, HTTP_CACHE, FEED_SOURCE and FIXTURE_PATH for the feeds
      */
     private void getConfigParams() {
         //Declare variables
@@ -103,63 +222,200 @@ public class DatabaseUtilities {
     }
     
     /**
-     * Method to establish connection to database
-     * @return usable connection
+     * Method to get an integer configuration item
+     * @param key of the configuration item
+     * @param defaultValue to use if missing or invalid
+     * @return configuration value
      */
-    private Connection databaseConnect() {
+    private int getConfigInt(String key, int defaultValue) {
+        String value = configMap.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            return intValue > 0 ? intValue : defaultValue;
+        } catch (NumberFormatException e) {
+            mResults.addResults("Invalid configuration " + key + " " + value);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Method to add the unique key on name column and date to a calculation 
+     * table when it does not have one yet, the upserts depend on it
+     * @param table to check
+     * @param column holding the country or state name
+     * @return true if the key exists or was added otherwise false
+     */
+    private boolean ensureUniqueKey(String table, String column) {
+        // Declare constant
+        final String SELECT_UNIQUE_KEY_SQL = "SELECT index_name FROM "
+                + "information_schema.statistics WHERE table_schema = "
+                + "DATABASE() AND table_name = ? AND non_unique = 0 "
+                + "GROUP BY index_name HAVING GROUP_CONCAT(column_name "
+                + "ORDER BY seq_in_index) = ?;";
+        try (Connection conn = connect()) {
+            // test connection
+            if (conn == null) {
+                mResults.addResults("ensureUniqueKey " + table + 
+                        " no connection");
+                return false;
+            }
+            try (
+                // statement to use
+                PreparedStatement statement = 
+                        conn.prepareStatement(SELECT_UNIQUE_KEY_SQL)) {
+                statement.setString(1, table);
+                statement.setString(2, column + ",date");
+                try (
+                    // run query with results
+                    ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return true;
+                    }
+                }
+            }
+            // add the key, fails if the table already holds duplicates
+            try (Statement statement = conn.createStatement()) {
+                statement.executeUpdate("ALTER TABLE " + table + 
+                        " ADD UNIQUE KEY " + table + "_" + column + 
+                        "_date (" + column + ", `date`);");
+            }
+            mResults.addResults("ensureUniqueKey added unique key to " + 
+                    table);
+            return true;
+        } catch (SQLException e) {
+            mResults.addResults("ensureUniqueKey " + table + " " + 
+                    e.getMessage() + ", writing calculations as inserts");
+            return false;
+        }
+    }
+    
+    /**
+     * Method to turn an insert into an upsert that updates every column 
+     * after the key columns when the key already exists
+     * @param insertSql insert statement with a column list
+     * @param keyColumns number of leading columns in the unique key
+     * @return upsert statement
+     */
+    private String createUpsertSql(String insertSql, int keyColumns) {
         // Declare variables
-        Connection conn = null;
-        int i = 0;
-        do {
-            try {
-                // Attempt to connect to database
-                conn = DriverManager.getConnection(configMap.get("DB_CONNECT"),
-                        configMap.get("DB_USER_NAME"),
-                        configMap.get("DB_USER_PASSWORD"));
-            } catch (SQLException e) {
-                mResults.addResults("connect " + e.getMessage());
+        String[] columns = insertSql.substring(insertSql.indexOf('(') + 1, 
+                insertSql.indexOf(')')).split(",");
+        StringBuilder upsert = new StringBuilder(
+                insertSql.substring(0, insertSql.lastIndexOf(';')));
+        upsert.append(" ON DUPLICATE KEY UPDATE ");
+        for (int i = keyColumns; i < columns.length; i++) {
+            String column = columns[i].trim();
+            if (i > keyColumns) {
+                upsert.append(", ");
             }
-            i++;
-        } while(conn == null && i < 10);
-        // test connection
-        if (conn == null) {
-            mResults.addResults("No connection in 10 attempts!");
-            System.exit(1);
+            upsert.append(column).append(" = VALUES(").append(column)
+                    .append(")");
         }
-        // return usable connection or null
-        return conn;
+        return upsert.append(";").toString();
+    }
+    
+    /**
+     * Method to get the maximum number of connections in the pool
+     * @return pool size
+     */
+    public int getPoolMaxSize() {
+        return getConfigInt("DB_POOL_MAX_SIZE", DEFAULT_POOL_MAX_SIZE);
+    }
+    
+    /**
+     * Method to get the maximum number of dates to calculate at once
+     * @return number of calculation threads
+     */
+    public int getCalculationThreads() {
+        return getConfigInt("CALCULATION_THREADS", DEFAULT_CALCULATION_THREADS);
+    }
+    
+    /**
+     * Method to get the number of threads that rank and score the metrics 
+     * of a date when PARALLEL_METRICS is on
+     * @return number of metric threads
+     */
+    public int getMetricThreads() {
+        return getConfigInt("METRIC_THREADS", DEFAULT_METRIC_THREADS);
+    }
+    
+    /**
+     * Method to get the time limit in milliseconds for scraping one page
+     * @return scrape timeout
+     */
+    public int getScrapeTimeout() {
+        return getConfigInt("SCRAPE_TIMEOUT", DEFAULT_SCRAPE_TIMEOUT);
+    }
+    
+    /**
+     * Method to test if the json feeds are read through the on-disk cache
+     * that skips feeds which did not change since the last run
+     * @return true if HTTP_CACHE is TRUE in the configuration
+     */
+    public boolean isHttpCache() {
+        return "TRUE".equalsIgnoreCase(configMap.getOrDefault(
+                "HTTP_CACHE", "FALSE").trim());
+    }
+    
+    /**
+     * Method to get where the scraped pages and json are read from
+     * @return LIVE, RECORD or REPLAY from FEED_SOURCE in the configuration
+     */
+    public String getFeedSource() {
+        return configMap.getOrDefault("FEED_SOURCE", "LIVE").trim()
+                .toUpperCase(Locale.ROOT);
+    }
+    
+    /**
+     * Method to get the directory of the recorded feed fixtures
+     * @param defaultPath to use if FIXTURE_PATH is not in the configuration
+     * @return fixture directory
+     */
+    public String getFixturePath(String defaultPath) {
+        String path = configMap.get("FIXTURE_PATH");
+        return path == null || path.isBlank() ? defaultPath : path.trim();
+    }
+    
+    /**
+     * Method to test if the metrics of a date are ranked and scored 
+     * concurrently
+     * @return true if PARALLEL_METRICS is TRUE in the configuration
+     */
+    public boolean isParallelMetrics() {
+        return "TRUE".equalsIgnoreCase(configMap.getOrDefault(
+                "PARALLEL_METRICS", "FALSE").trim());
+    }
+    
+    /**
+     * Method to replace the class connection with one from the pool
+     * @return usable connection or null when the pool has none
+     */
+    private Connection databaseConnect() {
+        // return the old class connection, the pool discards it if broken
+        closeConnection(mConn);
+        return connect();
     }
 
     /**
-     * Method to establish connection to database
-     * @return usable connection
+     * Method to borrow a connection from the pool, closing it returns it
+     * @return usable connection or null when the pool has none to give
      */
     public Connection connect() {
-        // Declare variables
-        Connection conn = null;
-        int i = 0;
-        do {
-            try {
-                // Attempt to connect to database
-                conn = DriverManager.getConnection(configMap.get("DB_CONNECT"),
-                        configMap.get("DB_USER_NAME"),
-                        configMap.get("DB_USER_PASSWORD"));
-            } catch (SQLException e) {
-                mResults.addResults("connect " + e.getMessage());
-            }
-            i++;
-        } while(conn == null && i < 10);
+        // Declare variable
+        Connection conn = mPool.borrow();
         // test connection
         if (conn == null) {
-            mResults.addResults("No connection in 10 attempts!");
-            System.exit(1);
+            mResults.addResults("No connection available from the pool!");
         }
-        // return usable connection or null
+        // return usable connection
         return conn;
     }
     
     /**
-     * Method to close class connection if one exists
+     * Method to close class connection if one exists and the pool
      */
     public void closeConnection() {
         // check if there is a connection
@@ -171,6 +427,8 @@ public class DatabaseUtilities {
                 mResults.addResults("closeConnection " + e.getMessage());
             }
         }
+        // close idle pooled connections
+        mPool.close();
     }
 
     /**
@@ -204,6 +462,9 @@ public class DatabaseUtilities {
         if (mConn == null) {
             mResults.addResults("selectStatePopulation no connection");
             mConn = databaseConnect();
+            if (mConn == null) {
+                return RETURN_ERROR;
+            }
         }
         try (
             // statement to use
@@ -258,6 +519,9 @@ public class DatabaseUtilities {
         if (mConn == null) {
             mResults.addResults("insertOWIDCountry no connection");
             mConn = databaseConnect();
+            if (mConn == null) {
+                return RETURN_ERROR;
+            }
         }
         try (
             // statenent to use
@@ -295,6 +559,9 @@ public class DatabaseUtilities {
         if (mConn == null) {
             mResults.addResults("selectStatePopulation no connection");
             mConn = databaseConnect();
+            if (mConn == null) {
+                return RETURN_ERROR;
+            }
         }
         try (
             // statement to use
@@ -350,6 +617,9 @@ public class DatabaseUtilities {
         if (mConn == null) {
             mResults.addResults("insertOWIDDaily no connection");
             mConn = databaseConnect();
+            if (mConn == null) {
+                return RETURN_ERROR;
+            }
         }
         try (
             // statenent to use
@@ -397,50 +667,179 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to get state population
-     * @param conn to database
-     * @param state to get population for
-     * @return population
+     * Method to get the dates already in the database for an OWID country
+     * @param isoCode of the country
+     * @return set of dates or null on error
      */
-    public long selectStatePopulation(Connection conn, String state) {
+    public Set<String> getOwidDailyDates(String isoCode) {
         // Declare constant
-        final String SELECT_POPULATION =
-                "SELECT population FROM states WHERE id = ?;";
+        final String SELECT_OWID_DATES_SQL =
+                "SELECT `date` FROM owid_dailies WHERE iso_code = ?;";
         // Declare variables
-        long population = 0;
+        Set<String> dates = new HashSet<>();
         // test connection
-        if (conn == null) {
-            mResults.addResults("selectStatePopulation no connection");
-            connect();
+        if (mConn == null) {
+            mResults.addResults("getOwidDailyDates no connection");
+            mConn = databaseConnect();
+            if (mConn == null) {
+                return null;
+            }
         }
-        if (conn != null) {
+        try (
+            // statement to use
+            PreparedStatement statement =
+                    mConn.prepareStatement(SELECT_OWID_DATES_SQL)) {
+            // add iso code parameter to statement
+            statement.setString(1, isoCode);
             try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_POPULATION)) {
-                //add state paramenter to statement
-                statement.setInt(1, selectStateId(conn, state));
-                // check for result(s)
-                try (
-                        // run query with results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check for result(s)
-                    while (resultSet.next()) {
-                        // get population from results
-                        population = resultSet.getLong(1);
+                // run query with results
+                ResultSet resultSet = statement.executeQuery()) {
+                // add each date
+                while (resultSet.next()) {
+                    dates.add(resultSet.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            mResults.addResults("getOwidDailyDates " + isoCode + " " +
+                    e.getMessage());
+            mConn = databaseConnect();
+            return null;
+        }
+        return dates;
+    }
+    
+    /**
+     * Method to get the latest OWID daily date for every country
+     * @return map of iso code and latest date or null on error
+     */
+    public Map<String, String> getOwidDailyMaxDates() {
+        // Declare constant
+        final String SELECT_OWID_MAX_DATES_SQL =
+                "SELECT iso_code, MAX(`date`) FROM owid_dailies "
+                + "GROUP BY iso_code;";
+        // Declare variables
+        Map<String, String> maxDates = new HashMap<>();
+        // test connection
+        if (mConn == null) {
+            mResults.addResults("getOwidDailyMaxDates no connection");
+            mConn = databaseConnect();
+            if (mConn == null) {
+                return null;
+            }
+        }
+        try (
+            // statement to use
+            PreparedStatement statement =
+                    mConn.prepareStatement(SELECT_OWID_MAX_DATES_SQL)) {
+            try (
+                // run query with results
+                ResultSet resultSet = statement.executeQuery()) {
+                // add each iso code and date
+                while (resultSet.next()) {
+                    maxDates.put(resultSet.getString(1), 
+                            resultSet.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            mResults.addResults("getOwidDailyMaxDates " + e.getMessage());
+            mConn = databaseConnect();
+            return null;
+        }
+        return maxDates;
+    }
+    
+    /**
+     * Method to insert OWID dailies for one country in batches inside a
+     * single transaction
+     * @param isoCode to insert
+     * @param dailies to insert
+     * @param population100k to use to calculate 100k values
+     * @return RETURN_OK if successful otherwise RETURN_ERROR
+     */
+    public int insertOwidDailies(String isoCode, List<OwidDaily> dailies, 
+            double population100k) {
+        // Declare constant
+        final String INSERT_OWID_DAILY_SQL = "INSERT INTO owid_dailies" +
+                " (iso_code, `date`, total_cases, new_cases, total_deaths, "
+                + "new_deaths, total_tests, new_tests, total_cases100k, "
+                + "new_cases100k, total_deaths100k, new_deaths100k, "
+                + "total_tests100k, new_tests100k)" +
+                " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+        if (dailies.isEmpty()) {
+            return RETURN_OK;
+        }
+        // test connection
+        if (mConn == null) {
+            mResults.addResults("insertOwidDailies no connection");
+            mConn = databaseConnect();
+            if (mConn == null) {
+                return RETURN_ERROR;
+            }
+        }
+        int batchSize = getConfigInt("OWID_BATCH_SIZE", 
+                DEFAULT_OWID_BATCH_SIZE);
+        try {
+            mConn.setAutoCommit(false);
+            try (
+                // statenent to use
+                PreparedStatement statement =
+                        mConn.prepareStatement(INSERT_OWID_DAILY_SQL)) {
+                int count = 0;
+                for (OwidDaily daily : dailies) {
+                    statement.setString(1, isoCode);
+                    statement.setString(2, daily.getDate());
+                    statement.setLong(3, daily.getTotalCases());
+                    statement.setLong(4, daily.getNewCases());
+                    statement.setLong(5, daily.getTotalDeaths());
+                    statement.setLong(6, daily.getNewDeaths());
+                    statement.setLong(7, daily.getTotalTests());
+                    statement.setLong(8, daily.getNewTests());
+                    statement.setDouble(9, 
+                            daily.getTotalCases100k(population100k));
+                    statement.setDouble(10, 
+                            daily.getNewCases100k(population100k));
+                    statement.setDouble(11, 
+                            daily.getTotalDeaths100k(population100k));
+                    statement.setDouble(12, 
+                            daily.getNewDeaths100k(population100k));
+                    statement.setDouble(13, 
+                            daily.getTotalTests100k(population100k));
+                    statement.setDouble(14, 
+                            daily.getNewTests100k(population100k));
+                    statement.addBatch();
+                    count++;
+                    // send every batch size rows or less
+                    if (count % batchSize == 0 || count == dailies.size()) {
+                        statement.executeBatch();
                     }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
                 }
-            } catch (SQLException e) {
-                mResults.addResults("selectStatePopulation" + state + " " +
-                        e.getMessage());
             }
+            mConn.commit();
+            mConn.setAutoCommit(true);
+            return RETURN_OK;
+        } catch (SQLException e) {
+            mResults.addResults("insertOwidDailies " + isoCode + " " + 
+                    e.getMessage());
+            try {
+                mConn.rollback();
+            } catch (SQLException ex) {
+                mResults.addResults("insertOwidDailies rollback " + isoCode + 
+                        " " + ex.getMessage());
+            }
+            mConn = databaseConnect();
+            return RETURN_ERROR;
         }
-        // return population
-        return population;
+    }
+
+    /**
+     * Method to get state population
+     * @param conn to database
+     * @param state to get population for
+     * @return population
+     */
+    public long selectStatePopulation(Connection conn, String state) {
+        // return population from the reference data
+        return mReferenceData.getStatePopulation(conn, state);
     }
 
     /**
@@ -450,40 +849,39 @@ public class DatabaseUtilities {
      * @return state id
      */
     public int selectStateId(Connection conn, String state) {
-        final String SELECT_STATE_ID_SQL =
-                "SELECT id FROM states WHERE state = ?;";
-        int stateId = 0;
-        // test connection
-        if (conn == null) {
-            mResults.addResults("selectStateId no connection");
-            connect();
-        }
-        if (conn != null) {
-            try ( // statement to use
-                  PreparedStatement statement =
-                          conn.prepareStatement(SELECT_STATE_ID_SQL)) {
-                // add state parameter to statement
-                statement.setString(1, state);
+        // return state id from the reference data
+        return mReferenceData.getStateId(conn, state);
+    }
 
-                try ( // run query and get results
-                      ResultSet resultSet = statement.executeQuery()) {
-                    while (resultSet.next()) {
-                        stateId = resultSet.getInt("id");
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectStateId" + state + " " + e.getMessage());
-            }
+    /**
+     * Method to INSERT the World totals of a scrape into database, the 
+     * totals of the day before are read once for all countries and the 
+     * dailies are written in one batch
+     * @param conn to the database
+     * @param lists to insert, the first list is the header
+     */
+    public void insertWorldTotals(Connection conn, List<List<String>> lists) {
+        // Declare variables
+        Map<java.sql.Date, DailyTotals> previous = new HashMap<>();
+        List<LocationDaily> dailies = new ArrayList<>();
+        // insert data in total table in database
+        for (int i = 1; i < lists.size(); i++) {
+            insertWorldTotal(conn, lists.get(i), previous, dailies);
         }
-        return stateId;
+        insertDailies(conn, INSERT_COUNTRY_DAILY_SQL, dailies, 
+                "insertCountryDaily ");
     }
 
     /**
-     * Method to INSERT World totals into database
+     * Method to INSERT World totals into database and add the daily
      * @param conn to the database
      * @param list to insert
+     * @param previous totals by date already read
+     * @param dailies to add the daily to
      */
-    public void insertWorldTotal(Connection conn, List<String> list) {
+    private void insertWorldTotal(Connection conn, List<String> list, 
+            Map<java.sql.Date, DailyTotals> previous, 
+            List<LocationDaily> dailies) {
         // Declare constant
         final String INSERT_COUNTRY_TOTALS_SQL = "INSERT INTO country_totals" +
                 " (country_id, cases, deaths, active, date)" +
@@ -501,7 +899,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertWorldTotal no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -549,7 +946,11 @@ public class DatabaseUtilities {
                 // close statement
                 statement.close();
                 if (mCountryId > 0 && mDate != null) {
-                    insertCountryDaily(conn, mCountryId, mDate, list);
+                    LocationDaily daily = createCountryDaily(conn, mCountryId, 
+                            mDate, list, previous);
+                    if (daily != null) {
+                        dailies.add(daily);
+                    }
                 }
             } catch (SQLException e) {
                 mResults.addResults("insertWorldTotal " + list.get(0) + " " +
@@ -559,155 +960,51 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to insert country daily
+     * Method to create country daily from the totals of the day before
      * @param conn to the database
+     * @param countryId of the country
      * @param date used
+     * @param list with the totals of the day
+     * @param previous totals by date already read
+     * @return country daily or null if there are no totals for the day
      */
-    private void insertCountryDaily(Connection conn, int countryId,
-                                    java.sql.Date date, List<String> list) {
-        // Declare constant
-        final String INSERT_COUNTRY_DAILY_SQL = "INSERT INTO country_dailies" +
-                " (country_id, cases, deaths, recovered, date)" +
-                " VALUES (?, ?, ?, ?, ?);";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("insertCountryDaily no connection");
-            connect();
-        }
+    private LocationDaily createCountryDaily(Connection conn, int countryId,
+            java.sql.Date date, List<String> list, 
+            Map<java.sql.Date, DailyTotals> previous) {
         if (countryId == 0 || date == null) {
             mResults.addResults("insertCountryDaily No countryId or date");
-            return;
-        }
-        java.sql.Date date1 = new java.sql.Date(date.getTime() - DAY);
-        long mCases, mCases1 = 0L, mDeaths, mDeaths1 = 0L,
-                mActive, mActive1 = 0L, mNewCases, mNewDeaths, mRecovered;
-        List<Long> totalYesterday = getCountryTotal(conn, countryId, date1);
-        if (totalYesterday.size() > 0) {
-            mCases1 = totalYesterday.get(0);
-            mDeaths1 = totalYesterday.get(1);
-            mActive1 = totalYesterday.get(2);
-        }
-        String tempString = list.get(1);
-        long tempLong = 0L;
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        mCases = tempLong;
-        // add total deaths parameter to statement
-        tempString = list.get(2);
-        tempLong = 0L;
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        mDeaths = tempLong;
-        // add active cases parameter to statement
-        tempString = list.get(3);
-        tempLong = 0L;
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        mActive = tempLong;
+            return null;
+        }
+        // get the totals of every country one day ago
+        java.sql.Date date1 = java.sql.Date.valueOf(
+                date.toLocalDate().minusDays(1));
+        DailyTotals yesterday = previous.computeIfAbsent(date1, 
+                key -> getCountryTotals(conn, key));
+        long mCases = parseTotal(list.get(1));
+        long mDeaths = parseTotal(list.get(2));
+        long mActive = parseTotal(list.get(3));
         // test current day results
         if (mCases == 0 && mDeaths == 0 && mActive == 0) {
             mResults.addResults("insertCountryDaily " +
                     String.format("No record found for country id %d on %s",
                             countryId, simpleDateFormat.format(date)));
-            return;
-        }
-        // calculate and insert daily data
-        try {
-            if (conn != null) {
-                // add state id parameter
-                try ( // statement to use
-                      PreparedStatement statement =
-                              conn.prepareStatement(INSERT_COUNTRY_DAILY_SQL)) {
-                    // add state id parameter
-                    statement.setInt(1, countryId);
-                    // add new cases parameter
-                    mNewCases = mCases - mCases1;
-                    if (mNewCases < 0) {
-                        mNewCases = 0;
-                    }   statement.setLong(2, mNewCases);
-                    // add new deaths parameter
-                    mNewDeaths = mDeaths - mDeaths1;
-                    if (mNewDeaths < 0) {
-                        mNewDeaths = 0;
-                    }   statement.setLong(3, mNewDeaths);
-                    // add recovered parameter
-                    mRecovered = mCases - mDeaths - mActive -
-                            (mCases1 - mDeaths1 - mActive1);
-                    if (mRecovered < 0) {
-                        mRecovered = 0;
-                    }   statement.setLong(4, mRecovered);
-                    // add date parameter
-                    java.sql.Date tempDate = new java.sql.Date(date.getTime());
-                    statement.setDate(5, tempDate);
-                    // execute statement and get result
-                    statement.execute();
-                    // close statement
-                }
-            }
-        } catch (SQLException e) {
-            mResults.addResults("insertCountryDaily " + list.get(0) + " " +
-                    e.getMessage());
+            return null;
         }
+        return LocationDaily.fromTotals(countryId, date, mCases, mDeaths, 
+                mActive, yesterday.getCases(countryId), 
+                yesterday.getDeaths(countryId), 
+                yesterday.getActive(countryId));
     }
 
     /**
-     * Method to get country total
+     * Method to get the totals of every country for a date in one query
      * @param conn o database
-     * @param countryId of country
      * @param date of data
-     * @return country total
+     * @return country totals by country id, empty if an error occurs
      */
-    private List<Long> getCountryTotal(Connection conn, int countryId,
-                                       java.sql.Date date) {
-        // Declare constant
-        final String GET_COUNTRY_TOTAL_SQL = "SELECT cases, deaths, "
-                + "active FROM country_totals WHERE date = ? "
-                + "AND country_id = ?";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getCountryTotal no connection");
-            connect();
-        }
-        // declare variable
-        List<Long> total = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(GET_COUNTRY_TOTAL_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                // add state id parameter
-                statement.setInt(2, countryId);
-                try (
-                        // run query with results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check for result(s)
-                    while (resultSet.next()) {
-                        // get cases from results
-                        total.add(resultSet.getLong(1));
-                        // get deaths from results
-                        total.add(resultSet.getLong(2));
-                        // get active
-                        total.add(resultSet.getLong(3));
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch(SQLException e) {
-                mResults.addResults("getCountryTotal " + countryId + " " + date +
-                        " " + e.getMessage());
-            }
-        }
-        return total;
+    public DailyTotals getCountryTotals(Connection conn, java.sql.Date date) {
+        return getDailyTotals(conn, date, SELECT_COUNTRY_TOTALS_SQL, 
+                "getCountryTotals ");
     }
 
     /**
@@ -717,47 +1014,13 @@ public class DatabaseUtilities {
      * @return country id
      */
     public int selectCountryId(Connection conn, String country)  {
-        // Declare constant
-        final String SELECT_COUNTRY_ID =
-                "SELECT country_id FROM country_labels WHERE label = ?;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("selectCountryId no connection");
-            connect();
-        }
-        // Declare variables
-        int countryId = 0;
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_COUNTRY_ID)) {
-                // add country parameter
-                statement.setString(1, country);
-                // check if results
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        // get country id from results
-                        countryId = resultSet.getInt(1);
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectCountryId " + country + " " +
-                        e.getMessage());
-            }
-        }
-        // check id
-        if(countryId < 1) {
-            // insert into country labels with unknown country id
-            insertCountry(conn, country);
-            countryId = UNKNOWN_COUNTRY_ID;
+        // get country id from the reference data
+        int countryId = mReferenceData.getCountryId(conn, country);
+        // check id
+        if(countryId < 1) {
+            // insert into country labels with unknown country id
+            insertCountry(conn, country);
+            countryId = UNKNOWN_COUNTRY_ID;
         }
         // return country id
         return countryId;
@@ -775,7 +1038,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertCountry no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -788,7 +1050,8 @@ public class DatabaseUtilities {
                 statement.setInt(2, UNKNOWN_COUNTRY_ID);
                 // run statement
                 statement.execute();
-                // close statement
+                // read the labels again on next use
+                mReferenceData.invalidateCountryLabels();
             } catch (SQLException e) {
                 mResults.addResults("insertCountry " + country + " " +
                         e.getMessage());
@@ -797,11 +1060,36 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to INSERT US totals into the database
+     * Method to INSERT the US totals of a scrape into the database, the 
+     * totals of the day before are read once for all states and the dailies 
+     * are written in one batch
+     * @param conn to the database
+     * @param lists to insert, the first list is the header
+     */
+    public void insertUSTotals(Connection conn, List<List<String>> lists) {
+        // Declare variables
+        Map<java.sql.Date, DailyTotals> previous = new HashMap<>();
+        List<LocationDaily> dailies = new ArrayList<>();
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).get(0).equals("Total:")) {
+                // insert data in total table in database
+                insertUSTotal(conn, lists.get(i), previous, dailies);
+            }
+        }
+        insertDailies(conn, INSERT_STATE_DAILY_SQL, dailies, 
+                "insertStateDaily ");
+    }
+
+    /**
+     * Method to INSERT US totals into the database and add the daily
      * @param conn to the database
      * @param list to insert
+     * @param previous totals by date already read
+     * @param dailies to add the daily to
      */
-    public void insertUSTotal(Connection conn, List<String> list) {
+    private void insertUSTotal(Connection conn, List<String> list, 
+            Map<java.sql.Date, DailyTotals> previous, 
+            List<LocationDaily> dailies) {
         // Declare constant
         final String INSERT_US_TOTAL_SQL = "INSERT INTO state_totals" +
                 " (state_id, cases, deaths, active, date)" +
@@ -809,7 +1097,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertUSTotal no connection");
-            connect();
+            return;
         }
         // Declare variable
         int mStateId;
@@ -868,7 +1156,11 @@ public class DatabaseUtilities {
                 // close statement
                 statement.close();
                 if (mStateId > 0 && mDate != null) {
-                    insertStateDaily(conn, mStateId, mDate, list);
+                    LocationDaily daily = createStateDaily(conn, mStateId, 
+                            mDate, list, previous);
+                    if (daily != null) {
+                        dailies.add(daily);
+                    }
                 }
             } catch (SQLException e) {
                 mResults.addResults("insertUsTotal " + list.get(0) + " " +
@@ -892,7 +1184,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertUnknownStateTotal no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -936,154 +1227,161 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to insert state daily
+     * Method to create state daily from the totals of the day before
      * @param conn to the database
      * @param stateId of the state
      * @param date used
+     * @param list with the totals of the day
+     * @param previous totals by date already read
+     * @return state daily or null if there is no state id or date
      */
-    private void insertStateDaily(Connection conn, int stateId,
-                                  java.sql.Date date, List<String> list) {
-        // Declare constant
-        final String INSERT_US_STATE_DAILY_SQL = "INSERT INTO state_dailies" +
-                " (state_id, cases, deaths, recovered, date)" +
-                " VALUES (?, ?, ?, ?, ?);";
+    private LocationDaily createStateDaily(Connection conn, int stateId,
+            java.sql.Date date, List<String> list, 
+            Map<java.sql.Date, DailyTotals> previous) {
         if (stateId == 0 || date == null) {
             mResults.addResults("insertStateDaily " + list.get(0) +
                     " no state id or date");
-            return;
-        }
-        // test connection
-        if (conn == null) {
-            mResults.addResults("insertStateDaily no connection");
-            connect();
-        }
-        java.sql.Date date1 = new java.sql.Date(date.getTime() - DAY);
-        long mCases, mCases1 = 0, mDeaths, mDeaths1 = 0, mActive, mActive1 = 0,
-                mNewCases, mNewDeaths, mRecovered;
-        // get stat totals one day ago
-        List<Long> totalYesterday = getStateTotal(conn, stateId, date1);
-        // if not exist set all numbers to 0
-        if (totalYesterday.size() > 0) {
-            // get data from yesterday
-            mCases1 = totalYesterday.get(0);
-            mDeaths1 = totalYesterday.get(1);
-            mActive1 = totalYesterday.get(2);
-        }
-        String tempString = list.get(1);
-        long tempLong = 0L;
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        tempString = list.get(2);
-        mCases = tempLong;
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        mDeaths = tempLong;
-        tempString = list.get(3);
-        if (!(tempString.equals("") || tempString.equals("N/A"))) {
-            tempString = tempString.replace(",", "");
-            tempLong = Long.parseLong(tempString);
-        }
-        mActive = tempLong;
+            return null;
+        }
+        // get the totals of every state one day ago
+        java.sql.Date date1 = java.sql.Date.valueOf(
+                date.toLocalDate().minusDays(1));
+        DailyTotals yesterday = previous.computeIfAbsent(date1, 
+                key -> getStateTotals(conn, key));
+        long mCases = parseTotal(list.get(1));
+        long mDeaths = parseTotal(list.get(2));
+        long mActive = parseTotal(list.get(3));
         // test current day results
         if (mCases == 0 && mDeaths == 0 && mActive == 0) {
             mResults.addResults("insertStateDaily " +
                     String.format("No record found for state id %d on %s",
                             stateId, simpleDateFormat.format(date)));
         }
-        if (conn != null) {
-            // calculate and insert dialy data
+        return LocationDaily.fromTotals(stateId, date, mCases, mDeaths, 
+                mActive, yesterday.getCases(stateId), 
+                yesterday.getDeaths(stateId), yesterday.getActive(stateId));
+    }
+
+    /**
+     * Method to get the totals of every state for a date in one query
+     * @param conn to the database
+     * @param date of the data
+     * @return state totals by state id, empty if an error occurs
+     */
+    public DailyTotals getStateTotals(Connection conn, java.sql.Date date) {
+        return getDailyTotals(conn, date, SELECT_STATE_TOTALS_SQL, 
+                "getStateTotals ");
+    }
+
+    /**
+     * Method to read the totals of every location for a date
+     * @param conn to the database
+     * @param date of the data
+     * @param sql selecting id, cases, deaths and active for a date
+     * @param caller name for error messages
+     * @return totals by id, empty if an error occurs
+     */
+    private DailyTotals getDailyTotals(Connection conn, java.sql.Date date, 
+            String sql, String caller) {
+        // declare variable
+        DailyTotals totals = new DailyTotals(date);
+        try (
+                // statement to use
+                PreparedStatement statement = conn.prepareStatement(sql)) {
+            // add date parameter
+            statement.setDate(1, date);
             try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(INSERT_US_STATE_DAILY_SQL)) {
-                // add state id parameter
-                statement.setInt(1, stateId);
-                // add new cases parameter
-                mNewCases = mCases - mCases1;
-                if (mNewCases < 0) {
-                    mNewCases = 0;
-                }
-                statement.setLong(2, mNewCases);
-                // add new deaths parameter
-                mNewDeaths = mDeaths - mDeaths1;
-                if (mNewDeaths < 0) {
-                    mNewDeaths = 0;
-                }
-                statement.setLong(3, mNewDeaths);
-                // add recovered parameter
-                mRecovered = mCases - mDeaths - mActive -
-                        (mCases1 - mDeaths1 - mActive1);
-                if (mRecovered < 0) {
-                    mRecovered = 0;
+                    // run query with results
+                    ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    totals.set(resultSet.getInt(1), resultSet.getLong(2), 
+                            resultSet.getLong(3), resultSet.getLong(4));
                 }
-                statement.setLong(4, mRecovered);
-                // add date parameter
-                statement.setDate(5, date);
-                // execute statement and get result
-                statement.execute();
-            } catch (SQLException e) {
-                mResults.addResults("insertStateDaily " + list.get(0) + " " +
-                        e.getMessage());
             }
+        } catch(SQLException e) {
+            mResults.addResults(caller + date + " " + e.getMessage());
         }
+        return totals;
     }
 
     /**
-     * Method to get state total from the database
+     * Method to insert dailies in one batch, like the totals each daily that 
+     * fails is reported on its own and the others are still written
      * @param conn to the database
-     * @param stateId to get state total for
-     * @param date of the data
-     * @return state total list
-     */
-    private List<Long> getStateTotal(Connection conn, int stateId,
-                                     java.sql.Date date) {
-        // Declare constant
-        final String GET_US_STATE_TOTAL_SQL = "SELECT cases, deaths, "
-                + "`active` FROM state_totals WHERE `date` = ? "
-                + "AND state_id = ?";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateTotal no connection");
-            connect();
+     * @param sql inserting id, cases, deaths, recovered and date
+     * @param dailies to insert
+     * @param caller name for error messages
+     * @return RETURN_OK or RETURN_ERROR if any daily was not written
+     */
+    private int insertDailies(Connection conn, String sql, 
+            List<LocationDaily> dailies, String caller) {
+        if (dailies.isEmpty()) {
+            return RETURN_OK;
         }
-        // declare variable
-        List<Long> total = new ArrayList<>();
-        if (conn != null) {
+        try {
+            conn.setAutoCommit(false);
             try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(GET_US_STATE_TOTAL_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                // add state id parameter
-                statement.setInt(2, stateId);
-                try (
-                        // run query with results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check for result(s)
-                    while (resultSet.next()) {
-                        // get cases from results
-                        total.add(resultSet.getLong(1));
-                        // get deaths from results
-                        total.add(resultSet.getLong(2));
-                        // get active
-                        total.add(resultSet.getLong(3));
+                    // statement to reuse for every daily
+                    PreparedStatement statement = conn.prepareStatement(sql)) {
+                for (LocationDaily daily : dailies) {
+                    statement.setInt(1, daily.getId());
+                    statement.setLong(2, daily.getCases());
+                    statement.setLong(3, daily.getDeaths());
+                    statement.setLong(4, daily.getRecovered());
+                    statement.setDate(5, daily.getDate());
+                    statement.addBatch();
+                }
+                // run all inserts
+                int[] counts;
+                try {
+                    counts = statement.executeBatch();
+                } catch (BatchUpdateException e) {
+                    mResults.addResults(caller + dailies.get(0).getDate() + 
+                            " " + e.getMessage());
+                    counts = e.getUpdateCounts();
+                }
+                // keep the dailies written and report the others
+                conn.commit();
+                int failed = 0;
+                for (int i = 0; i < dailies.size(); i++) {
+                    if (i >= counts.length || 
+                            counts[i] == Statement.EXECUTE_FAILED) {
+                        mResults.addResults(caller + dailies.get(i).getId() + 
+                                " " + dailies.get(i).getDate() + 
+                                " not written");
+                        failed++;
                     }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
                 }
-            } catch(SQLException e) {
-                mResults.addResults("getStateTotal " + stateId + " " + date + " " +
-                        e.getMessage());
+                return failed == 0 ? RETURN_OK : RETURN_ERROR;
+            }
+        } catch (SQLException e) {
+            mResults.addResults(caller + dailies.get(0).getDate() + " " + 
+                    e.getMessage());
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                mResults.addResults(caller + "rollback " + ex.getMessage());
+            }
+            return RETURN_ERROR;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                mResults.addResults(caller + "autocommit " + e.getMessage());
             }
         }
-        return total;
+    }
+
+    /**
+     * Method to parse a scraped total
+     * @param value scraped with thousands separators
+     * @return total or 0 if empty or N/A
+     */
+    private long parseTotal(String value) {
+        if (value.equals("") || value.equals("N/A")) {
+            return 0L;
+        }
+        return Long.parseLong(value.replace(",", ""));
     }
 
     /**
@@ -1100,7 +1398,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("updateStatePopulation no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -1110,9 +1407,12 @@ public class DatabaseUtilities {
                 //add population parameter
                 statement.setLong(1, population);
                 // add state parameter
-                statement.setInt(2, selectStateId(conn, state));
+                int stateId = selectStateId(conn, state);
+                statement.setInt(2, stateId);
                 // run statement
                 statement.execute();
+                // keep the new population
+                mReferenceData.setStatePopulation(stateId, population);
             } catch (SQLException e) {
                 mResults.addResults("updateStatePopulation " + state + " " +
                         e.getMessage());
@@ -1134,7 +1434,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("updateWorldPopulation no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -1144,9 +1443,12 @@ public class DatabaseUtilities {
                 //add population parameter
                 statement.setLong(1, population);
                 // add state parameter
-                statement.setInt(2, selectCountryId(conn, country));
+                int countryId = selectCountryId(conn, country);
+                statement.setInt(2, countryId);
                 // run statement
                 statement.execute();
+                // keep the new population
+                mReferenceData.setCountryPopulation(countryId, population);
             } catch (SQLException e) {
                 mResults.addResults("updateCountryPopulation " + country + " " +
                         e.getMessage());
@@ -1161,44 +1463,9 @@ public class DatabaseUtilities {
      * @return population
      */
     public long selectWorldPopulation(Connection conn, String country) {
-        // Declare constant
-        final String SELECT_POPULATION =
-                "SELECT population FROM country_codes WHERE id = ?;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("selectWorldPopulation no connection");
-            connect();
-        }
-        // Declare variables
-        long population = 0;
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_POPULATION)) {
-                //add state paramenter to statement
-                statement.setInt(1, selectCountryId(conn, country));
-                // check for result(s)
-                try (
-                        // run query with results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check for result(s)
-                    while (resultSet.next()) {
-                        // get population from results
-                        population = resultSet.getLong(1);
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectWorldPopulation " + country + " " +
-                        e.getMessage());
-            }
-        }
-        // return population
-        return population;
+        // return population from the reference data
+        return mReferenceData.getCountryPopulation(conn, 
+                selectCountryId(conn, country));
     }
 
     /**
@@ -1219,7 +1486,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertStatePopulation no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -1232,6 +1498,8 @@ public class DatabaseUtilities {
                 statement.setLong(2, population);
                 // run statement
                 statement.execute();
+                // read the states again on next use
+                mReferenceData.invalidateStates();
             }
             catch(SQLException e) {
                 mResults.addResults("insertStatePopulation " + state + " " +
@@ -1266,7 +1534,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertUnknownCountryTotal no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -1317,38 +1584,8 @@ public class DatabaseUtilities {
      * @return country id
      */
     public int selectStatCountryId(Connection conn, String country) {
-        // declare constants
-        final String SELECT_STAT_COUNTRIES_SQL = "SELECT country_id FROM "
-                + "stat_countries WHERE country = ?;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("selectStatCountryId no connection");
-            connect();
-        }
-        // declare variable
-        int countryId = 0;
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement1 =
-                            conn.prepareStatement(SELECT_STAT_COUNTRIES_SQL)) {
-                // add country parameter
-                statement1.setString(1, country);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement1.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        // get country id from results
-                        countryId = resultSet.getInt(1);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectStatCountryId " + country + " " +
-                        e.getMessage());
-            }
-        }
-        return countryId;
+        // return stat country id from the reference data
+        return mReferenceData.getStatCountryId(conn, country);
     }
 
     /**
@@ -1364,7 +1601,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("getStatCountryMaxDate no connection");
-            connect();
+            return null;
         }
         // declare variable
         java.sql.Date maxDate = null;
@@ -1396,8 +1633,9 @@ public class DatabaseUtilities {
      * @param countryId of the country
      * @param mDate of the data
      * @param list of data
+     * @return RETURN_OK if written otherwise RETURN_ERROR
      */
-    public void insertStatTotal (Connection conn, int countryId,
+    public int insertStatTotal (Connection conn, int countryId,
                                  java.sql.Date mDate, List<String> list) {
         // Declare constant
         final String INSERT_STAT_TOTALS_SQL =
@@ -1406,7 +1644,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("insertStatTotal no connection");
-            connect();
+            return RETURN_ERROR;
         }
         // declare variables
         long recovered = 0, active, cases, deaths;
@@ -1454,12 +1692,14 @@ public class DatabaseUtilities {
             catch(SQLException e) {
                 mResults.addResults("insertStatTotal " + list.get(2) + " " +
                         e.getMessage());
-                return;
+                return RETURN_ERROR;
             }
             if (countryId > 0 && active > 0) {
                 updateCountryTotal(conn, countryId, active, cases, deaths, mDate);
             }
+            return RETURN_OK;
         }
+        return RETURN_ERROR;
     }
 
     /**
@@ -1480,7 +1720,6 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("updateCountryTotal no connection");
-            connect();
         }
         if (checkCountryUpdate(conn, countryId) && conn != null) {
             try (
@@ -1519,7 +1758,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("checkCountryUpdate no connection");
-            connect();
+            return false;
         }
         // declare variable
         boolean canUpdate = false;
@@ -1563,7 +1802,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("getWorldData no connection");
-            connect();
+            return null;
         }
         // declare variable
         WorldData world = new WorldData();
@@ -1610,7 +1849,7 @@ public class DatabaseUtilities {
         // test connection
         if (conn == null) {
             mResults.addResults("getUSAData no connection");
-            connect();
+            return null;
         }
         // declare variable
         USAData usa = new USAData();
@@ -1642,1732 +1881,383 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to get case data from the database
+     * Method to get every country total needed for calculations of one date
+     * in a single query
      * @param conn to the database
      * @param date of the data
-     * @return case data
+     * @return country snapshot or null on error
      */
-    public Map<String, Long> getCasesData(Connection conn, java.sql.Date date) {
+    public RegionSnapshot getCountrySnapshot(Connection conn, 
+            java.sql.Date date) {
         // Declare constant
-        final String SELECT_CASES_COUNTRY_TOTALS_SQL =
-                "SELECT display, cases "
+        final String SELECT_COUNTRY_SNAPSHOT_SQL =
+                "SELECT display, country_totals.cases, country_totals.deaths, "
+                        + "country_totals.active, country_totals.population, "
+                        + "country_dailies.cases AS new_cases, "
+                        + "country_dailies.deaths AS new_deaths "
                         + "FROM country_totals INNER JOIN country_codes "
                         + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY cases;";
+                        + "LEFT JOIN country_dailies "
+                        + "ON country_dailies.country_id = country_totals.country_id "
+                        + "AND country_dailies.`date` = country_totals.`date` "
+                        + "WHERE country_totals.`date` = ? "
+                        + "AND country_codes.alpha_2 NOT IN ('R', 'S');";
         // test connection
         if (conn == null) {
-            mResults.addResults("getCaseData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> cases = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_CASES_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        cases.put(resultSet.getString("display"),
-                                resultSet.getLong("cases"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getCasesData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
+            mResults.addResults("getCountrySnapshot no connection");
         }
-        return cases;
+        return getSnapshot(conn, date, SELECT_COUNTRY_SNAPSHOT_SQL, "display", 
+                "getCountrySnapshot ");
     }
     
     /**
-     * Method to get case data from the database
+     * Method to get every state total needed for calculations of one date
+     * in a single query
      * @param conn to the database
      * @param date of the data
-     * @return case data
+     * @return state snapshot or null on error
      */
-    public Map<String, Long> getStateCasesData(Connection conn, java.sql.Date date) {
+    public RegionSnapshot getStateSnapshot(Connection conn, 
+            java.sql.Date date) {
         // Declare constant
-        final String SELECT_CASES_STATE_TOTALS_SQL =
-                "SELECT state, cases "
+        final String SELECT_STATE_SNAPSHOT_SQL =
+                "SELECT state, state_totals.cases, state_totals.deaths, "
+                        + "state_totals.active, state_totals.population, "
+                        + "state_dailies.cases AS new_cases, "
+                        + "state_dailies.deaths AS new_deaths "
                         + "FROM state_totals INNER JOIN states "
                         + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY cases;";
+                        + "LEFT JOIN state_dailies "
+                        + "ON state_dailies.state_id = state_totals.state_id "
+                        + "AND state_dailies.`date` = state_totals.`date` "
+                        + "WHERE state_totals.`date` = ?;";
         // test connection
         if (conn == null) {
-            mResults.addResults("getStateCaseData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> cases = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_CASES_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        cases.put(resultSet.getString("state"),
-                                resultSet.getLong("cases"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateCasesData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
+            mResults.addResults("getStateSnapshot no connection");
         }
-        return cases;
+        return getSnapshot(conn, date, SELECT_STATE_SNAPSHOT_SQL, "state", 
+                "getStateSnapshot ");
     }
     
     /**
-     * Method to get new case data from the database
+     * Method to get the number of countries and the sums of their totals 
+     * for each date of a range, the same rows as the country snapshots
      * @param conn to the database
-     * @param date of the data
-     * @return case data
+     * @param from first date
+     * @param to last date
+     * @return digests by epoch day or null on error
      */
-    public Map<String, Long> getNewCasesData(Connection conn, java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES_COUNTRY_DAILIES_SQL =
-                "SELECT display, cases "
-                        + "FROM country_dailies INNER JOIN country_codes "
-                        + "ON country_dailies.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY cases;";
+    public Map<Long, long[]> getCountryDigests(Connection conn, 
+            java.sql.Date from, java.sql.Date to) {
+        // declare constant
+        final String SELECT_COUNTRY_DIGESTS_SQL =
+                "SELECT country_totals.`date`, COUNT(*), "
+                        + "SUM(country_totals.cases), "
+                        + "SUM(country_totals.deaths), "
+                        + "SUM(country_totals.population) "
+                        + "FROM country_totals INNER JOIN country_codes "
+                        + "ON country_totals.country_id = country_codes.id "
+                        + "LEFT JOIN country_dailies "
+                        + "ON country_dailies.country_id = country_totals.country_id "
+                        + "AND country_dailies.`date` = country_totals.`date` "
+                        + "WHERE country_totals.`date` BETWEEN ? AND ? "
+                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
+                        + "GROUP BY country_totals.`date`;";
+        return getDigests(conn, from, to, SELECT_COUNTRY_DIGESTS_SQL, 
+                "getCountryDigests ");
+    }
+    
+    /**
+     * Method to get the number of states and the sums of their totals for 
+     * each date of a range, the same rows as the state snapshots
+     * @param conn to the database
+     * @param from first date
+     * @param to last date
+     * @return digests by epoch day or null on error
+     */
+    public Map<Long, long[]> getStateDigests(Connection conn, 
+            java.sql.Date from, java.sql.Date to) {
+        // declare constant
+        final String SELECT_STATE_DIGESTS_SQL =
+                "SELECT state_totals.`date`, COUNT(*), "
+                        + "SUM(state_totals.cases), SUM(state_totals.deaths), "
+                        + "SUM(state_totals.population) "
+                        + "FROM state_totals INNER JOIN states "
+                        + "ON state_totals.state_id = states.id "
+                        + "LEFT JOIN state_dailies "
+                        + "ON state_dailies.state_id = state_totals.state_id "
+                        + "AND state_dailies.`date` = state_totals.`date` "
+                        + "WHERE state_totals.`date` BETWEEN ? AND ? "
+                        + "GROUP BY state_totals.`date`;";
+        return getDigests(conn, from, to, SELECT_STATE_DIGESTS_SQL, 
+                "getStateDigests ");
+    }
+    
+    /**
+     * Method to run a digest query
+     * @param conn to the database
+     * @param from first date
+     * @param to last date
+     * @param sql digest query to run
+     * @param caller to report errors as
+     * @return digests by epoch day or null on error
+     */
+    private Map<Long, long[]> getDigests(Connection conn, java.sql.Date from,
+            java.sql.Date to, String sql, String caller) {
+        // declare variable
+        Map<Long, long[]> digests = new HashMap<>();
         // test connection
         if (conn == null) {
-            mResults.addResults("getNewCaseData no connection");
-            connect();
+            mResults.addResults(caller + "no connection");
+            return null;
         }
-        // declare variable
-        Map<String, Long> cases = new HashMap<>();
-        if (conn != null) {
+        try (
+            // statement to use to get the digests
+            PreparedStatement statement = conn.prepareStatement(sql)) {
+            // add date parameters
+            statement.setDate(1, from);
+            statement.setDate(2, to);
             try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_CASES_COUNTRY_DAILIES_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        cases.put(resultSet.getString("display"),
-                                resultSet.getLong("cases"));
-                    }
+                    // run query and get results
+                    ResultSet resultSet = statement.executeQuery()) {
+                // add each date
+                while (resultSet.next()) {
+                    digests.put(resultSet.getDate(1).toLocalDate()
+                            .toEpochDay(), new long[] {resultSet.getLong(2),
+                                resultSet.getLong(3), resultSet.getLong(4),
+                                resultSet.getLong(5)});
                 }
-            } catch (SQLException e) {
-                mResults.addResults("getNewCasesData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
             }
+        } catch (SQLException e) {
+            mResults.addResults(caller + e.getMessage());
+            return null;
         }
-        return cases;
+        return digests;
     }
     
     /**
-     * Method to get new case data from the database
+     * Method to run a snapshot query and load the results into columns
      * @param conn to the database
      * @param date of the data
-     * @return case data
+     * @param sql snapshot query to run
+     * @param nameColumn column with the location name
+     * @param caller to report errors as
+     * @return snapshot or null on error
      */
-    public Map<String, Long> getNewStateCasesData(Connection conn, java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES_STATE_DAILIES_SQL =
-                "SELECT state, cases "
-                        + "FROM state_dailies INNER JOIN states "
-                        + "ON state_dailies.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY cases;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getNewStateCaseData no connection");
-            connect();
-        }
+    private RegionSnapshot getSnapshot(Connection conn, java.sql.Date date, 
+            String sql, String nameColumn, String caller) {
         // declare variable
-        Map<String, Long> cases = new HashMap<>();
+        RegionSnapshot snapshot = new RegionSnapshot(date);
         if (conn != null) {
             try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_CASES_STATE_DAILIES_SQL)) {
+                // statement to use to get the snapshot
+                PreparedStatement statement = conn.prepareStatement(sql)) {
                 // add date parameter
                 statement.setDate(1, date);
                 try (
                         // run query and get results
                         ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
+                    // add each location
                     while (resultSet.next()) {
-                        cases.put(resultSet.getString("state"),
-                                resultSet.getLong("cases"));
+                        snapshot.add(resultSet.getString(nameColumn),
+                                resultSet.getLong("cases"),
+                                resultSet.getLong("deaths"),
+                                resultSet.getLong("active"),
+                                resultSet.getLong("population"),
+                                resultSet.getLong("new_cases"),
+                                resultSet.getLong("new_deaths"));
                     }
                 }
             } catch (SQLException e) {
-                mResults.addResults("getNewStateCasesData " + date.toString() + " " +
+                mResults.addResults(caller + date.toString() + " " +
                         e.getMessage());
                 return null;
             }
         }
-        return cases;
+        return snapshot;
     }
 
     /**
-     * Method to get death data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return death data
+     * Method to insert calculation data for all countries of a date in one 
+     * transaction
+     * @param conn connection to the database
+     * @param calcs calculation data of the date
+     * @return RETURN_OK or RETURN_ERROR when nothing was written
      */
-    public Map<String, Long> getDeathsData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS_COUNTRY_TOTALS_SQL =
-                "SELECT display, deaths "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY deaths;";
+    public int insertCalculations(Connection conn, List<Calculations> calcs) {
         // test connection
         if (conn == null) {
-            mResults.addResults("getDeathsData no connection");
-            connect();
+            mResults.addResults("insertCalculations no connection");
+            return RETURN_ERROR;
         }
-        // declare variable
-        Map<String, Long> deaths = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        deaths.put(resultSet.getString("display"),
-                                resultSet.getLong("deaths"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getDeathsData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths;
-    }
-    
-    /**
-     * Method to get death data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return death data
-     */
-    public Map<String, Long> getStateDeathsData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS_STATE_TOTALS_SQL =
-                "SELECT state, deaths "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY deaths;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateDeathsData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> deaths = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        deaths.put(resultSet.getString("state"),
-                                resultSet.getLong("deaths"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateDeathsData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths;
-    }
-    
-    /**
-     * Method to get death data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return death data
-     */
-    public Map<String, Long> getNewDeathsData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS_COUNTRY_DAILIES_SQL =
-                "SELECT display, deaths "
-                        + "FROM country_dailies INNER JOIN country_codes "
-                        + "ON country_dailies.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY deaths;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getNewDeathsData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> deaths = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS_COUNTRY_DAILIES_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        deaths.put(resultSet.getString("display"),
-                                resultSet.getLong("deaths"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getNewDeathsData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths;
-    }
-    
-    /**
-     * Method to get death data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return death data
-     */
-    public Map<String, Long> getNewStateDeathsData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS_STATE_DAILIES_SQL =
-                "SELECT state, deaths "
-                        + "FROM state_dailies INNER JOIN states "
-                        + "ON state_dailies.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY deaths;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getNewStateDeathsData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> deaths = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS_STATE_DAILIES_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        deaths.put(resultSet.getString("state"),
-                                resultSet.getLong("deaths"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getNewStateDeathsData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths;
-    }
-
-    /**
-     * Method to get active data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return active data
-     */
-    public Map<String, Long> getActiveData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_ACTIVE_COUNTRY_TOTALS_SQL =
-                "SELECT display, active "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY active;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getActiveData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> active = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_ACTIVE_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        active.put(resultSet.getString("display"),
-                                resultSet.getLong("active"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getActiveData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return active;
-    }
-    
-    /**
-     * Method to get active data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return active data
-     */
-    public Map<String, Long> getStateActiveData(Connection conn,
-                                           java.sql.Date date) {
-        // Declare constant
-        final String SELECT_ACTIVE_STATE_TOTALS_SQL =
-                "SELECT state, active "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY active;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateActiveData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Long> active = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_ACTIVE_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        active.put(resultSet.getString("state"),
-                                resultSet.getLong("active"));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateActiveData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return active;
-    }
-    
-    /**
-     * Method to get recovered data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return recovered data
-     */
-    public List<StringDouble> getRecoveredPercentData(Connection conn,
-                                              java.sql.Date date) {
-        // Declare constant
-        final String SELECT_RECOVERED_PERCENT_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT(((cases - `active` - deaths) / cases) "
-                        + "* 100, 5, false) AS recoveredPercent "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S', 'W')"
-                        + "ORDER BY ((cases - `active` - deaths) / cases) * "
-                        + "100 DESC;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getRecoveredPercentData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> recoveredPercent = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(
-                                SELECT_RECOVERED_PERCENT_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        recoveredPercent.add(new StringDouble(
-                            resultSet.getString("display"),
-                            cleanDouble(resultSet
-                                    .getString("recoveredPercent"))));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getRecoveredPercentData " + date.toString() 
-                        + " " + e.getMessage());
-                return null;
-            }
-        }
-        return recoveredPercent;
-    }
-
-    /**
-     * Method to get cases100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getCases100kData(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((cases / population) * 100000, 5, false) AS cases100k "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getCases100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("cases100k")));
-                        cases100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getCases100kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k;
-    }
-    
-    /**
-     * Method to get cases100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getStateCases100kData(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((cases / population) * 100000, 5, false) AS cases100k "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateCases100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("cases100k")));
-                        cases100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateCases100kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k;
-    }
-    
-    /**
-     * Method to get new cases100k data from 16 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getCases100kData16(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K16_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((cases / population) * 100000, 5, false) AS cases100k16 "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getCases100kData16 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k16 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K16_COUNTRY_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(16);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("cases100k16")));
-                        cases100k16.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getCases100kData16 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k16;
-    }
-    
-    /**
-     * Method to get new cases100k data from 16 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getStateCases100kData16(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K16_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((cases / population) * 100000, 5, false) AS cases100k16 "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateCases100kData16 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k16 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K16_STATE_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(16);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("cases100k16")));
-                        cases100k16.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateCases100kData16 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k16;
-    }
-    
-    /**
-     * Method to get new cases100k data from 31 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getCases100kData31(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K31_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((cases / population) * 100000, 5, false) AS cases100k31 "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getCases100kData31 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k31 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K31_COUNTRY_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(31);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("cases100k31")));
-                        cases100k31.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getCases100kData31 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k31;
-    }
-    
-    /**
-     * Method to get new cases100k data from 31 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return cases100k data
-     */
-    public List<StringDouble> getStateCases100kData31(Connection conn, 
-            java.sql.Date date) {
-        // Declare constant
-        final String SELECT_CASES100K31_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((cases / population) * 100000, 5, false) AS cases100k31 "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (cases / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateCases100kData31 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> cases100k31 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_CASES100K31_STATE_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(31);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("cases100k31")));
-                        cases100k31.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateCases100kData31 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return cases100k31;
-    }
-    
-    /**
-     * Method to remove commas from string
-     * @param string to clean
-     * @return number in double format
-     */
-    private double cleanDouble (String string) {
-        if (string == null || string.isBlank()) {
-            return 0.0;
-        }
-        string = string.replace(",", "");
-        double tempDouble = Double.parseDouble(string);
-        return tempDouble;
-    }
-
-    /**
-     * Method to get deaths100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getDeaths100kData(Connection conn,
-                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getDeaths100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("deaths100k")));
-                        deaths100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getDeaths10kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k;
-    }
-    
-    /**
-     * Method to get deaths100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getStateDeaths100kData(Connection conn,
-                               java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateDeaths100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("deaths100k")));
-                        deaths100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateDeaths10kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k;
-    }
-    
-    /**
-     * Method to get new deaths100k data from 16 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getDeaths100kData16(Connection conn,
-                    java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K16_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k16 "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getDeaths10kData16 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k16 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K16_COUNTRY_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(16);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("deaths100k16")));
-                        deaths100k16.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getDeaths100kData16 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k16;
-    }
-    
-    /**
-     * Method to get new deaths100k data from 16 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getStateDeaths100kData16(Connection conn,
-                    java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K16_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k16 "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateDeaths10kData16 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k16 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K16_STATE_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(16);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("deaths100k16")));
-                        deaths100k16.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateDeaths100kData16 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k16;
-    }
-    
-    /**
-     * Method to get new deaths100k data from 31 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getDeaths100kData31(Connection conn,
-                    java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K31_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k31 "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getDeaths10kData31 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k31 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K31_COUNTRY_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(31);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("deaths100k31")));
-                        deaths100k31.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getDeaths100kData31 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k31;
-    }
-    
-    /**
-     * Method to get new deaths100k data from 31 days prior from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return deaths100k data
-     */
-    public List<StringDouble> getStateDeaths100kData31(Connection conn,
-                    java.sql.Date date) {
-        // Declare constant
-        final String SELECT_DEATHS100K31_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((deaths / population) * 100000, 5, false) AS deaths100k31 "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (deaths / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateDeaths10kData31 no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> deaths100k31 = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_DEATHS100K31_STATE_TOTALS_SQL)) {
-                // add date - 16 days parameter
-                LocalDate pastDate = date.toLocalDate().minusDays(31);
-                java.sql.Date date1 = java.sql.Date.valueOf(pastDate);
-                statement.setDate(1, date1);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("deaths100k31")));
-                        deaths100k31.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateDeaths100kData31 " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return deaths100k31;
-    }
-
-    /**
-     * Method to get active100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return active100k data
-     */
-    public List<StringDouble> getActive100kData(Connection conn,
-                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_ACTIVE100K_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((active / population) * 100000, 5, false) AS active100k "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S') "
-                        + "ORDER BY (active / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getActive100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> active100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_ACTIVE100K_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("active100k")));
-                        active100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getActive100kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return active100k;
-    }
-    
-    /**
-     * Method to get active100k data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return active100k data
-     */
-    public List<StringDouble> getStateActive100kData(Connection conn,
-                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_ACTIVE100K_STATE_TOTALS_SQL =
-                "SELECT state, FORMAT((active / population) * 100000, 5, false) AS active100k "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY (active / population) * 100000;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getStateActive100kData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringDouble> active100k = new ArrayList<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_ACTIVE100K_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringDouble countryDouble = new StringDouble(
-                                resultSet.getString("state"),
-                                cleanDouble(resultSet.getString("active100k")));
-                        active100k.add(countryDouble);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStateActive100kData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return active100k;
-    }
-
-//    /**
-//     * Method to get recovered10k data from the database
-//     * @param conn to the database
-//     * @param date of the data
-//     * @return recovered10k data
-//     */
-//    public List<CountryDouble> getRecovered10kData(Connection conn,
-//                java.sql.Date date) {
-//        // Declare constant
-//        final String SELECT_RECOVERED10K_COUNTRY_TOTALS_SQL =
-//                "SELECT display, FORMAT(((cases - deaths - `active`) / "
-//                        + "population) * 10000, 2, false) AS recovered10k "
-//                        + "FROM country_totals INNER JOIN country_codes "
-//                        + "ON country_totals.country_id = country_codes.id "
-//                        + "WHERE `date` = ? "
-//                        + "AND country_codes.alpha_2 NOT IN ('R', 'S', 'W') "
-//                        + "ORDER BY ((cases - deaths - `active`) / population) * 10000 "
-//                        + "DESC;";
-//        // test connection
-//        if (conn == null) {
-//            mResults.addResults("getRecovered10kData no connection");
-//            connect();
-//        }
-//        // declare variable
-//        List<CountryDouble> recovered10k = new ArrayList<>();
-//        if (conn != null) {
-//            try (
-//                    // statement to use to get stat country id
-//                    PreparedStatement statement =
-//                            conn.prepareStatement(SELECT_RECOVERED10K_COUNTRY_TOTALS_SQL)) {
-//                // add date parameter
-//                statement.setDate(1, date);
-//                try (
-//                        // run query and get results
-//                        ResultSet resultSet = statement.executeQuery()) {
-//                    // check if results
-//                    while (resultSet.next()) {
-//                        CountryDouble countryDouble = new CountryDouble(
-//                            resultSet.getString("display"),
-//                            cleanDouble(resultSet.getString("recovered10k")));
-//                        recovered10k.add(countryDouble);
-//                    }
-//                }
-//            } catch (SQLException e) {
-//                mResults.addResults("getRecovered10kData " + date.toString() + " " +
-//                        e.getMessage());
-//                return null;
-//            }
-//        }
-//        return recovered10k;
-//    }
-
-    /**
-     * Method to get mortality data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return mortality data
-     */
-    public Map<String, Double> getMortalityData(Connection conn,
-                                                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_MORTALITY_COUNTRY_TOTALS_SQL =
-                "SELECT display, FORMAT((deaths / (deaths + "
-                        + "(cases - `active` - deaths))) * 100, 5, false) AS mortality "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY (deaths / (deaths + (cases - `active` - deaths))) * "
-                        + "100;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getMortalityData no connection");
-            connect();
-        }
-        // declare variable
-        Map<String, Double> mortality = new HashMap<>();
-        if (conn != null) {
-            try (
-                    // statement to use to get stat country id
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_MORTALITY_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        mortality.put(resultSet.getString("display"),
-                                cleanDouble(resultSet.getString("mortality")));
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getMortalityData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return mortality;
-    }
-
-    /**
-     * Method to get population data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return population data
-     */
-    public List<StringLong> getPopulationData(Connection conn,
-                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_POPULATION_COUNTRY_TOTALS_SQL =
-                "SELECT display, population "
-                        + "FROM country_totals INNER JOIN country_codes "
-                        + "ON country_totals.country_id = country_codes.id "
-                        + "WHERE `date` = ? "
-                        + "AND country_codes.alpha_2 NOT IN ('R', 'S')"
-                        + "ORDER BY population DESC;";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("getPopulationData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringLong> population = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_POPULATION_COUNTRY_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringLong countryLong = new StringLong(
-                                resultSet.getString("display"),
-                                resultSet.getLong("population"));
-                        population.add(countryLong);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getPopulationData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
-        }
-        return population;
+        return insertCalculationBatch(conn, mCalculationsSql, calcs, 
+                "insertCalculations ");
     }
-    
+
     /**
-     * Method to get population data from the database
-     * @param conn to the database
-     * @param date of the data
-     * @return population data
+     * Method to insert calculation data for all states of a date in one 
+     * transaction
+     * @param conn connection to the database
+     * @param calcs calculation data of the date
+     * @return RETURN_OK or RETURN_ERROR when nothing was written
      */
-    public List<StringLong> getStatePopulationData(Connection conn,
-                java.sql.Date date) {
-        // Declare constant
-        final String SELECT_POPULATION_STATE_TOTALS_SQL =
-                "SELECT state, population "
-                        + "FROM state_totals INNER JOIN states "
-                        + "ON state_totals.state_id = states.id "
-                        + "WHERE `date` = ? "
-                        + "ORDER BY population DESC;";
+    public int insertStateCalculations(Connection conn, List<Calculations> calcs) {
         // test connection
         if (conn == null) {
-            mResults.addResults("getStatePopulationData no connection");
-            connect();
-        }
-        // declare variable
-        List<StringLong> population = new ArrayList<>();
-        if (conn != null) {
-            try (
-                // statement to use to get stat country id
-                PreparedStatement statement =
-                    conn.prepareStatement(SELECT_POPULATION_STATE_TOTALS_SQL)) {
-                // add date parameter
-                statement.setDate(1, date);
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        StringLong countryLong = new StringLong(
-                                resultSet.getString("state"),
-                                resultSet.getLong("population"));
-                        population.add(countryLong);
-                    }
-                }
-            } catch (SQLException e) {
-                mResults.addResults("getStatePopulationData " + date.toString() + " " +
-                        e.getMessage());
-                return null;
-            }
+            mResults.addResults("insertStateCalculations no connection");
+            return RETURN_ERROR;
         }
-        return population;
+        return insertCalculationBatch(conn, mStateCalculationsSql, calcs, 
+                "insertStateCalculations ");
     }
 
     /**
-     * Method to insert calculation data to the database
+     * Method to write a batch of calculations with one statement in one 
+     * transaction
      * @param conn connection to the database
-     * @param calc calculation data
-     */
-    public void insertCalculation(Connection conn, Calculations calc) {
-        final String INSERT_CALCULATIONS_SQL = "INSERT INTO "
-                + "country_json (country, `date`, population, population_world_rank, "
-                + "pc_of_world_population, mortality_rate, pc_of_world_deaths, "
-                + "pc_of_world_active_cases, pc_of_world_recovered, "
-                + "pc_of_world_total_cases, total_cases, new_cases, total_deaths, "
-                + "new_deaths, total_active_cases, total_deaths100k, "
-                + "total_deaths100k_rank, total_deaths100k_score, "
-                + "total_deaths100k_grade, total_active100k, total_active100k_rank, "
-                + "total_active100k_score, total_active100k_grade, "
-                + "total_cases100k, total_cases100k_rank, total_cases100k_score, "
-                + "total_cases100k_grade, new_cases100k_15days, "
-                + "new_cases100k_15days_rank, new_cases100k_15days_score, "
-                + "new_cases100k_15days_grade, new_deaths100k_15days, "
-                + "new_deaths100k_15days_rank, new_deaths100k_15days_score,"
-                + "new_deaths100k_15days_grade, new_cases100k_30days, "
-                + "new_cases100k_30days_rank, new_cases100k_30days_score, "
-                + "new_cases100k_30days_grade, new_deaths100k_30days, "
-                + "new_deaths100k_30days_rank, new_deaths100k_30days_score, "
-                + "new_deaths100k_30days_grade, overall_rank, overall_score, "
-                + "overall_grade) "
-                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                + "?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("insertCalculations no connection");
-            connect();
+     * @param sql insert statement to use
+     * @param calcs calculation data to write
+     * @param caller to report errors as
+     * @return RETURN_OK or RETURN_ERROR when nothing was written
+     */
+    private int insertCalculationBatch(Connection conn, String sql, 
+            List<Calculations> calcs, String caller) {
+        if (calcs.isEmpty()) {
+            return RETURN_OK;
         }
-        if (conn != null) {
+        try {
+            conn.setAutoCommit(false);
             try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(INSERT_CALCULATIONS_SQL)) {
-                // add country parameter
-                statement.setString(1, calc.getCountry());
-                // add date parameter
-                statement.setDate(2, calc.getDate());
-                // add population parameter
-                statement.setLong(3, calc.getPopulation());
-                // add population rank parameter
-                statement.setInt(4, calc.getPopulationRank());
-                // add percent of population parameter
-                statement.setDouble(5, calc.getPercentPopulation());
-                // add percent of mortality parameter
-                statement.setDouble(6, calc.getMortalityRate());
-                // add percent of deaths parameter
-                statement.setDouble(7, calc.getPercentDeaths());
-                // add percent of active cases parameter
-                statement.setDouble(8, calc.getPercentActive());
-                // add percent of recovered cases parameter
-                statement.setDouble(9, calc.getPercentRecovered());
-                // add percent of total cases parameter
-                statement.setDouble(10, calc.getPercentCases());
-                // add total cases parameter
-                statement.setLong(11, calc.getTotalCases());
-                // add new cases parameter
-                statement.setLong(12, calc.getNewCases());
-                // add total deaths parameter
-                statement.setLong(13, calc.getTotalDeaths());
-                // add new deaths parameter
-                statement.setLong(14, calc.getNewDeaths());
-                // add total active cases parameter
-                statement.setLong(15, calc.getTotalActiveCases());
-                // add deaths100k parameter
-                statement.setDouble(16, calc.getDeaths100k());
-                // add deaths100k rank parameter
-                statement.setInt(17, calc.getDeaths100kRank());
-                // add deaths100k score parameter
-                statement.setInt(18, calc.getDeaths100kScore());
-                // add deaths100k grade parameter
-                statement.setString(19, calc.getDeaths100kGrade());
-                // add active100k parameter
-                statement.setDouble(20, calc.getActive100k());
-                // add active100k rank parameter
-                statement.setInt(21, calc.getActive100kRank());
-                // add active100k score parameter
-                statement.setInt(22, calc.getActive100kScore());
-                // add active100k grade parameter
-                statement.setString(23, calc.getActive100kGrade());
-                // add cases100k parameter
-                statement.setDouble(24, calc.getCases100k());
-                // add cases100k rank parameter
-                statement.setInt(25, calc.getCases100kRank());
-                // add cases100k score parameter
-                statement.setInt(26, calc.getCases100kScore());
-                // add cases100k grade parameter
-                statement.setString(27, calc.getCases100kGrade());
-                // add deaths100k 15 days parameter
-                statement.setDouble(28, calc.getDeaths100k15());
-                // add deaths100k 15 days rank parameter
-                statement.setInt(29, calc.getDeaths100k15Rank());
-                // add deaths100k 15 days score parameter
-                statement.setInt(30, calc.getDeaths100k15Score());
-                // add deaths100k 15 days grade parameter
-                statement.setString(31, calc.getDeaths100k15Grade());
-                // add cases100k 15 days parameter
-                statement.setDouble(32, calc.getCases100k15());
-                // add cases100k 15 days rank parameter
-                statement.setInt(33, calc.getCases100k15Rank());
-                // add cases100k 15 days score parameter
-                statement.setInt(34, calc.getCases100k15Score());
-                // add cases100k 15 days grade parameter
-                statement.setString(35, calc.getCases100k15Grade());
-                // add deaths100k 30 days parameter
-                statement.setDouble(36, calc.getDeaths100k30());
-                // add deaths100k 30 days rank parameter
-                statement.setInt(37, calc.getDeaths100k30Rank());
-                // add deaths100k 30 days score parameter
-                statement.setInt(38, calc.getDeaths100k30Score());
-                // add deaths100k 30 days grade parameter
-                statement.setString(39, calc.getDeaths100k30Grade());
-                // add cases100k 30 days parameter
-                statement.setDouble(40, calc.getCases100k30());
-                // add cases100k 30 days rank parameter
-                statement.setInt(41, calc.getCases100k30Rank());
-                // add cases100k 30 days score parameter
-                statement.setInt(42, calc.getCases100k30Score());
-                // add cases100k 30 days grade parameter
-                statement.setString(43, calc.getCases100k30Grade());
-                // add overall rank parameter
-                statement.setInt(44, calc.getRank());
-                // add overall score parameter
-                statement.setInt(45, calc.getScore());
-                // add overall grade parameter
-                statement.setString(46, calc.getGrade());
-                // run statement
-                statement.execute();
+                    // statement to reuse for every calculation
+                    PreparedStatement statement = conn.prepareStatement(sql)) {
+                for (Calculations calc : calcs) {
+                    // add calculation parameters
+                    setCalculationParameters(statement, calc);
+                    statement.addBatch();
+                }
+                // run all inserts
+                statement.executeBatch();
+            }
+            conn.commit();
+            return RETURN_OK;
+        } catch (SQLException e) {
+            mResults.addResults(caller + calcs.get(0).getDate().toString() + 
+                    " " + e.getMessage());
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                mResults.addResults(caller + "rollback " + ex.getMessage());
+            }
+            return RETURN_ERROR;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
             } catch (SQLException e) {
-                mResults.addResults("insertCalculations " + calc.getCountry() + 
-                        " " + calc.getDate().toString() + " " + e.getMessage());
+                mResults.addResults(caller + "autocommit " + e.getMessage());
             }
         }
     }
-
-
+    
     /**
-     * Method to insert calculation data to the database
-     * @param conn connection to the database
+     * Method to add calculation parameters to an insert statement
+     * @param statement to add parameters to
      * @param calc calculation data
-     */
-    public void insertStateCalculation(Connection conn, Calculations calc) {
-        final String INSERT_CALCULATIONS_SQL = "INSERT INTO "
-                + "state_json (state, `date`, population, population_usa_rank, "
-                + "pc_of_usa_population, mortality_rate, pc_of_usa_deaths, "
-                + "pc_of_usa_active_cases, pc_of_usa_recovered, "
-                + "pc_of_usa_total_cases, total_cases, new_cases, total_deaths, "
-                + "new_deaths, total_active_cases, total_deaths100k, "
-                + "total_deaths100k_rank, total_deaths100k_score, "
-                + "total_deaths100k_grade, total_active100k, total_active100k_rank, "
-                + "total_active100k_score, total_active100k_grade, "
-                + "total_cases100k, total_cases100k_rank, total_cases100k_score, "
-                + "total_cases100k_grade, new_cases100k_15days, "
-                + "new_cases100k_15days_rank, new_cases100k_15days_score, "
-                + "new_cases100k_15days_grade, new_deaths100k_15days, "
-                + "new_deaths100k_15days_rank, new_deaths100k_15days_score,"
-                + "new_deaths100k_15days_grade, new_cases100k_30days, "
-                + "new_cases100k_30days_rank, new_cases100k_30days_score, "
-                + "new_cases100k_30days_grade, new_deaths100k_30days, "
-                + "new_deaths100k_30days_rank, new_deaths100k_30days_score, "
-                + "new_deaths100k_30days_grade, overall_rank, overall_score, "
-                + "overall_grade) "
-                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                + "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
-                + "?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        // test connection
-        if (conn == null) {
-            mResults.addResults("insertStateCalculations no connection");
-            connect();
-        }
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(INSERT_CALCULATIONS_SQL)) {
-                // add state parameter
-                statement.setString(1, calc.getCountry());
-                // add date parameter
-                statement.setDate(2, calc.getDate());
-                // add population parameter
-                statement.setLong(3, calc.getPopulation());
-                // add population rank parameter
-                statement.setInt(4, calc.getPopulationRank());
-                // add percent of population parameter
-                statement.setDouble(5, calc.getPercentPopulation());
-                // add percent of mortality parameter
-                statement.setDouble(6, calc.getMortalityRate());
-                // add percent of deaths parameter
-                statement.setDouble(7, calc.getPercentDeaths());
-                // add percent of active cases parameter
-                statement.setDouble(8, calc.getPercentActive());
-                // add percent of recovered cases parameter
-                statement.setDouble(9, calc.getPercentRecovered());
-                // add percent of total cases parameter
-                statement.setDouble(10, calc.getPercentCases());
-                // add total cases parameter
-                statement.setLong(11, calc.getTotalCases());
-                // add new cases parameter
-                statement.setLong(12, calc.getNewCases());
-                // add total deaths parameter
-                statement.setLong(13, calc.getTotalDeaths());
-                // add new deaths parameter
-                statement.setLong(14, calc.getNewDeaths());
-                // add total active cases parameter
-                statement.setLong(15, calc.getTotalActiveCases());
-                // add deaths100k parameter
-                statement.setDouble(16, calc.getDeaths100k());
-                // add deaths100k rank parameter
-                statement.setInt(17, calc.getDeaths100kRank());
-                // add deaths100k score parameter
-                statement.setInt(18, calc.getDeaths100kScore());
-                // add deaths100k grade parameter
-                statement.setString(19, calc.getDeaths100kGrade());
-                // add active100k parameter
-                statement.setDouble(20, calc.getActive100k());
-                // add active100k rank parameter
-                statement.setInt(21, calc.getActive100kRank());
-                // add active100k score parameter
-                statement.setInt(22, calc.getActive100kScore());
-                // add active100k grade parameter
-                statement.setString(23, calc.getActive100kGrade());
-                // add cases100k parameter
-                statement.setDouble(24, calc.getCases100k());
-                // add cases100k rank parameter
-                statement.setInt(25, calc.getCases100kRank());
-                // add cases100k score parameter
-                statement.setInt(26, calc.getCases100kScore());
-                // add cases100k grade parameter
-                statement.setString(27, calc.getCases100kGrade());
-                // add deaths100k 15 days parameter
-                statement.setDouble(28, calc.getDeaths100k15());
-                // add deaths100k 15 days rank parameter
-                statement.setInt(29, calc.getDeaths100k15Rank());
-                // add deaths100k 15 days score parameter
-                statement.setInt(30, calc.getDeaths100k15Score());
-                // add deaths100k 15 days grade parameter
-                statement.setString(31, calc.getDeaths100k15Grade());
-                // add cases100k 15 days parameter
-                statement.setDouble(32, calc.getCases100k15());
-                // add cases100k 15 days rank parameter
-                statement.setInt(33, calc.getCases100k15Rank());
-                // add cases100k 15 days score parameter
-                statement.setInt(34, calc.getCases100k15Score());
-                // add cases100k 15 days grade parameter
-                statement.setString(35, calc.getCases100k15Grade());
-                // add deaths100k 30 days parameter
-                statement.setDouble(36, calc.getDeaths100k30());
-                // add deaths100k 30 days rank parameter
-                statement.setInt(37, calc.getDeaths100k30Rank());
-                // add deaths100k 30 days score parameter
-                statement.setInt(38, calc.getDeaths100k30Score());
-                // add deaths100k 30 days grade parameter
-                statement.setString(39, calc.getDeaths100k30Grade());
-                // add cases100k 30 days parameter
-                statement.setDouble(40, calc.getCases100k30());
-                // add cases100k 30 days rank parameter
-                statement.setInt(41, calc.getCases100k30Rank());
-                // add cases100k 30 days score parameter
-                statement.setInt(42, calc.getCases100k30Score());
-                // add cases100k 30 days grade parameter
-                statement.setString(43, calc.getCases100k30Grade());
-                // add overall rank parameter
-                statement.setInt(44, calc.getRank());
-                // add overall score parameter
-                statement.setInt(45, calc.getScore());
-                // add overall grade parameter
-                statement.setString(46, calc.getGrade());
-                // run statement
-                statement.execute();
-            } catch (SQLException e) {
-                mResults.addResults("insertStateCalculations " + calc.getCountry() + 
-                        " " + calc.getDate().toString() + " " + e.getMessage());
-            }
-        }
+     * @throws SQLException when a parameter can not be set
+     */
+    private void setCalculationParameters(PreparedStatement statement, 
+            Calculations calc) throws SQLException {
+        // add country parameter
+        statement.setString(1, calc.getCountry());
+        // add date parameter
+        statement.setDate(2, calc.getDate());
+        // add population parameter
+        statement.setLong(3, calc.getPopulation());
+        // add population rank parameter
+        statement.setInt(4, calc.getPopulationRank());
+        // add percent of population parameter
+        statement.setDouble(5, calc.getPercentPopulation());
+        // add percent of mortality parameter
+        statement.setDouble(6, calc.getMortalityRate());
+        // add percent of deaths parameter
+        statement.setDouble(7, calc.getPercentDeaths());
+        // add percent of active cases parameter
+        statement.setDouble(8, calc.getPercentActive());
+        // add percent of recovered cases parameter
+        statement.setDouble(9, calc.getPercentRecovered());
+        // add percent of total cases parameter
+        statement.setDouble(10, calc.getPercentCases());
+        // add total cases parameter
+        statement.setLong(11, calc.getTotalCases());
+        // add new cases parameter
+        statement.setLong(12, calc.getNewCases());
+        // add total deaths parameter
+        statement.setLong(13, calc.getTotalDeaths());
+        // add new deaths parameter
+        statement.setLong(14, calc.getNewDeaths());
+        // add total active cases parameter
+        statement.setLong(15, calc.getTotalActiveCases());
+        // add deaths100k parameter
+        statement.setDouble(16, calc.getDeaths100k());
+        // add deaths100k rank parameter
+        statement.setInt(17, calc.getDeaths100kRank());
+        // add deaths100k score parameter
+        statement.setInt(18, calc.getDeaths100kScore());
+        // add deaths100k grade parameter
+        statement.setString(19, calc.getDeaths100kGrade());
+        // add active100k parameter
+        statement.setDouble(20, calc.getActive100k());
+        // add active100k rank parameter
+        statement.setInt(21, calc.getActive100kRank());
+        // add active100k score parameter
+        statement.setInt(22, calc.getActive100kScore());
+        // add active100k grade parameter
+        statement.setString(23, calc.getActive100kGrade());
+        // add cases100k parameter
+        statement.setDouble(24, calc.getCases100k());
+        // add cases100k rank parameter
+        statement.setInt(25, calc.getCases100kRank());
+        // add cases100k score parameter
+        statement.setInt(26, calc.getCases100kScore());
+        // add cases100k grade parameter
+        statement.setString(27, calc.getCases100kGrade());
+        // add deaths100k 15 days parameter
+        statement.setDouble(28, calc.getDeaths100k15());
+        // add deaths100k 15 days rank parameter
+        statement.setInt(29, calc.getDeaths100k15Rank());
+        // add deaths100k 15 days score parameter
+        statement.setInt(30, calc.getDeaths100k15Score());
+        // add deaths100k 15 days grade parameter
+        statement.setString(31, calc.getDeaths100k15Grade());
+        // add cases100k 15 days parameter
+        statement.setDouble(32, calc.getCases100k15());
+        // add cases100k 15 days rank parameter
+        statement.setInt(33, calc.getCases100k15Rank());
+        // add cases100k 15 days score parameter
+        statement.setInt(34, calc.getCases100k15Score());
+        // add cases100k 15 days grade parameter
+        statement.setString(35, calc.getCases100k15Grade());
+        // add deaths100k 30 days parameter
+        statement.setDouble(36, calc.getDeaths100k30());
+        // add deaths100k 30 days rank parameter
+        statement.setInt(37, calc.getDeaths100k30Rank());
+        // add deaths100k 30 days score parameter
+        statement.setInt(38, calc.getDeaths100k30Score());
+        // add deaths100k 30 days grade parameter
+        statement.setString(39, calc.getDeaths100k30Grade());
+        // add cases100k 30 days parameter
+        statement.setDouble(40, calc.getCases100k30());
+        // add cases100k 30 days rank parameter
+        statement.setInt(41, calc.getCases100k30Rank());
+        // add cases100k 30 days score parameter
+        statement.setInt(42, calc.getCases100k30Score());
+        // add cases100k 30 days grade parameter
+        statement.setString(43, calc.getCases100k30Grade());
+        // add overall rank parameter
+        statement.setInt(44, calc.getRank());
+        // add overall score parameter
+        statement.setInt(45, calc.getScore());
+        // add overall grade parameter
+        statement.setString(46, calc.getGrade());
     }
 
     
@@ -3378,7 +2268,7 @@ public class DatabaseUtilities {
                 + "FROM latest_country_totals WHERE date = ?;";
         if (conn == null) {
             mResults.addResults("getLatestCountryTotals no connection");
-            connect();
+            return new ArrayList<>();
         }
         // declare variable
         List<List<String>> lists = new ArrayList<>();
@@ -3418,181 +2308,282 @@ public class DatabaseUtilities {
     }
 
     /**
-     * Method to insert world in data into database
+     * Method to insert the rows of an our world in data csv file into the 
+     * database with one statement sent and committed in batches
      * @param conn to the database
-     * @param lists to add from
+     * @param file csv file to read, the first row is the heading
+     * @return number of rows written or RETURN_ERROR
      */
-    public void insertOurWorldInData(Connection conn, List<List<String>> lists) {
-        // Declare constants
+    public long insertOurWorldInData(Connection conn, Path file) {
+        // Declare constant
         final String INSERT_HISTORY_SQL = "INSERT INTO history (country_id,"
                 + "history_date, total_cases, total_deaths, new_cases, "
                 + "new_deaths) VALUES (?, ?, ?, ?, ?, ?);";
         if (conn == null) {
-            mResults.addResults("InsertOurWorldInData no connection");
-            connect();
+            mResults.addResults("insertOurWorldInData no connection");
+            return RETURN_ERROR;
         }
         // Declare variables
-        // loop through list
-        // TODO only add data not in database
-        for (int i = 1; i < lists.size(); i++) {
-            if (conn != null) {
-                try (
-                        // statenent to use
-                        PreparedStatement statement =
-                                conn.prepareStatement(INSERT_HISTORY_SQL)) {
-                    // add country id parameter to
-                    int countryId;
-                    if (lists.get(i).get(0).equals("OWID_KOS")) {
-                        lists.get(i).set(0, "XKX");
-                    }
-                    countryId = selectCountryIdByAlpha3(conn,
-                            lists.get(i).get(0));
-                    if (lists.get(i).get(0).equals("OWID_WRL")) {
-                        countryId = 256;
-                    }
-                    if (countryId == 0) {
-                        String countryCode = selectCountryCodeByAlpha3(conn,
-                                lists.get(i).get(0));
-                        if (countryCode.equals("")) {
-                            System.out.println("Country code not listed: " +
-                                    lists.get(i).get(0));
-                        } else {
-                            insertCountry(conn, lists.get(i).get(2));
-                            countryId = selectCountryIdByAlpha3(conn,
-                                    lists.get(i).get(0));
-                        }
-                    }
-                    if (countryId == 0) {
-                        continue;
-                    }
-                    statement.setInt(1, countryId);
-                    // add date parameter to statement
-                    java.sql.Date parsed = null;
-                    try {
-                        parsed = new java.sql.Date(simpleDateFormat.parse(
-                                lists.get(i).get(3)).getTime());
-                    } catch (ParseException e) {
-                        mResults.addResults("insertOurWorldInData Parse Exception "
-                                + lists.get(i).get(0) + " " + e.getMessage());
-                    }
-                    statement.setDate(2, parsed);
-                    // add total cases parameter to statement
-                    long tempLong = 0;
-                    double tempDouble;
-                    String tempString = lists.get(i).get(4);
-                    if (!(tempString == null || tempString.equals(""))) {
-                        tempDouble = Double.parseDouble(tempString);
-                        tempLong = (long) tempDouble;
-                    }
-                    statement.setLong(3, tempLong);
-                    // add total deaths parameter to statement
-                    tempLong = 0;
-                    tempString = lists.get(i).get(7);
-                    if (!(tempString == null || tempString.equals(""))) {
-                        tempDouble = Double.parseDouble(tempString);
-                        tempLong = (long) tempDouble;
-                    }
-                    statement.setLong(4, tempLong);
-                    // add new cases parameter to statement
-                    tempLong = 0;
-                    tempString = lists.get(i).get(5);
-                    if (!(tempString == null || tempString.equals(""))) {
-                        tempDouble = Double.parseDouble(tempString);
-                        tempLong = (long) tempDouble;
-                    }
-                    statement.setLong(5, tempLong);
-                    // add new deathes parameter to statement
-                    tempLong = 0;
-                    tempString = lists.get(i).get(8);
-                    if (!(tempString == null || tempString.equals(""))) {
-                        tempDouble = Double.parseDouble(tempString);
-                        tempLong = (long) tempDouble;
+        int batchSize = getConfigInt("OWID_BATCH_SIZE", 
+                DEFAULT_OWID_BATCH_SIZE);
+        Map<String, Integer> countryIds = new HashMap<>();
+        long[] counts = new long[3];
+        try (
+            // statement to use for the whole file
+            PreparedStatement statement = 
+                    conn.prepareStatement(INSERT_HISTORY_SQL)) {
+            conn.setAutoCommit(false);
+            try {
+                new CSVStreamReader().read(file, row -> {
+                    if (row.getRowNumber() > 0 && addHistory(conn, statement, 
+                            row, countryIds) && ++counts[PENDING] == batchSize) {
+                        sendHistory(conn, statement, counts);
                     }
-                    statement.setLong(6, tempLong);
-                    // run query
-                    statement.execute();
-                } catch (SQLException e) {
-                    mResults.addResults("insertOurWorldInData " +
-                            lists.get(i).get(0) + " " + e.getMessage());
+                });
+                // write the rest
+                if (counts[PENDING] > 0) {
+                    sendHistory(conn, statement, counts);
                 }
+            } finally {
+                conn.setAutoCommit(true);
             }
+        } catch (SQLException | IOException e) {
+            mResults.addResults("insertOurWorldInData " + file + " " + 
+                    e.getMessage());
+            return RETURN_ERROR;
         }
+        mResults.addResults("insertOurWorldInData " + file + " " + 
+                counts[WRITTEN] + " rows written, " + counts[FAILED] + 
+                " rows failed");
+        return counts[WRITTEN];
     }
     
     /**
-     * Method to create state dailies from state totals
+     * Method to add a row of our world in data to the batch of a statement
      * @param conn to the database
+     * @param statement to add the row to
+     * @param row of the csv file, after the heading
+     * @param countryIds country id of each iso code already looked up
+     * @return true if the row was added
      */
-    public void createStateDailies(Connection conn) {
-        // Declare constant
-        final String GET_STATE_TOTALS_SQL = 
-                "SELECT state_id, date, cases, deaths, active FROM state_totals"
-                + " ORDER BY date";
-        if (conn == null) {
-            mResults.addResults("createStateDailies no connection");
-            connect();
-        }
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(GET_STATE_TOTALS_SQL)) {
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        List<String> daily = new ArrayList<>();
-
-                        daily.set(3, resultSet.getString("cases"));
-                        daily.set(4, resultSet.getString("deaths"));
-                        daily.set(5, resultSet.getString("active"));
-                        insertStateDaily(conn, resultSet.getInt("state_id"),
-                                resultSet.getDate("date"), daily);
-                    }
+    private boolean addHistory(Connection conn, PreparedStatement statement, 
+            CSVRow row, Map<String, Integer> countryIds) {
+        // Declare variable
+        String isoCode = row.matches(0, "OWID_KOS") ? "XKX" : 
+                row.getString(0);
+        // look up each country once per file
+        Integer countryId = countryIds.get(isoCode);
+        if (countryId == null) {
+            countryId = isoCode.equals("OWID_WRL") ? 256 : 
+                    selectCountryIdByAlpha3(conn, isoCode);
+            if (countryId == 0) {
+                if (selectCountryCodeByAlpha3(conn, isoCode).equals("")) {
+                    mResults.addResults("insertOurWorldInData country code " 
+                            + "not listed " + isoCode);
+                } else {
+                    insertCountry(conn, row.getString(2));
+                    countryId = selectCountryIdByAlpha3(conn, isoCode);
                 }
-            } catch (SQLException e) {
-                mResults.addResults("createStateDailies " + e.getMessage());
             }
+            countryIds.put(isoCode, countryId);
+        }
+        if (countryId == 0) {
+            return false;
+        }
+        try {
+            statement.setInt(1, countryId);
+            // add date parameter to statement
+            statement.setDate(2, new java.sql.Date(simpleDateFormat.parse(
+                    row.getString(3)).getTime()));
+            // add total cases parameter to statement
+            statement.setLong(3, row.getLong(4, 0));
+            // add total deaths parameter to statement
+            statement.setLong(4, row.getLong(7, 0));
+            // add new cases parameter to statement
+            statement.setLong(5, row.getLong(5, 0));
+            // add new deathes parameter to statement
+            statement.setLong(6, row.getLong(8, 0));
+            statement.addBatch();
+            return true;
+        } catch (SQLException | ParseException | NumberFormatException e) {
+            mResults.addResults("insertOurWorldInData " + isoCode + " row " + 
+                    row.getRowNumber() + " " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Method to send and commit the batch of our world in data rows, a 
+     * failed batch is rolled back and counted so the rest of the file is 
+     * still written
+     * @param conn to the database
+     * @param statement holding the batch
+     * @param counts of rows pending, written and failed
+     */
+    private void sendHistory(Connection conn, PreparedStatement statement, 
+            long[] counts) {
+        try {
+            statement.executeBatch();
+            conn.commit();
+            counts[WRITTEN] += counts[PENDING];
+        } catch (SQLException e) {
+            mResults.addResults("insertOurWorldInData batch of " + 
+                    counts[PENDING] + " " + e.getMessage());
+            counts[FAILED] += counts[PENDING];
+            try {
+                statement.clearBatch();
+                conn.rollback();
+            } catch (SQLException ex) {
+                mResults.addResults("insertOurWorldInData rollback " + 
+                        ex.getMessage());
+            }
+        }
+        counts[PENDING] = 0;
+    }
+    
+    /**
+     * Method to rebuild state dailies from all state totals
+     * @param conn to the database
+     */
+    public void createStateDailies(Connection conn) {
+        int count = rebuildDailies(conn, SELECT_ALL_STATE_TOTALS_SQL, 
+                "DELETE FROM state_dailies;", INSERT_STATE_DAILY_SQL, false, 
+                "createStateDailies ");
+        if (count != RETURN_ERROR) {
+            mResults.addResults("createStateDailies " + count + 
+                    " dailies written");
         }
     }
     
     /**
-     * Method to create country dailies from country totals
+     * Method to rebuild country dailies from all country totals
      * @param conn to the database
      */
     public void createCountryDailies(Connection conn) {
-        // Declare constant
-        final String GET_COUNTRY_TOTALS_SQL = 
-                "SELECT country_id, date, cases, deaths, active "
-                + "FROM country_totals ORDER BY date";
+        int count = rebuildDailies(conn, SELECT_ALL_COUNTRY_TOTALS_SQL, 
+                "DELETE FROM country_dailies;", INSERT_COUNTRY_DAILY_SQL, true, 
+                "createCountryDailies ");
+        if (count != RETURN_ERROR) {
+            mResults.addResults("createCountryDailies " + count + 
+                    " dailies written");
+        }
+    }
+
+    /**
+     * Method to rebuild dailies in one pass over the totals ordered by 
+     * location and date, only the previous row is held and the dailies 
+     * are committed in batches after the old ones are removed, so no 
+     * transaction holds the whole table
+     * @param conn to the database, used to stream the totals
+     * @param selectSql selecting id, date, cases, deaths and active ordered 
+     * by id and date
+     * @param deleteSql removing the old dailies
+     * @param insertSql inserting id, cases, deaths, recovered and date
+     * @param skipEmpty true to skip days without any totals
+     * @param caller name for error messages
+     * @return number of dailies written or RETURN_ERROR
+     */
+    private int rebuildDailies(Connection conn, String selectSql, 
+            String deleteSql, String insertSql, boolean skipEmpty, 
+            String caller) {
+        // test connection
         if (conn == null) {
-            mResults.addResults("createCountryDailies no connection");
-            connect();
+            mResults.addResults(caller + "no connection");
+            return RETURN_ERROR;
         }
-        if (conn != null) {
+        // Declare variables
+        int count = 0;
+        int skipped = 0;
+        int pending = 0;
+        int previousId = 0;
+        LocalDate previousDate = null;
+        long cases1 = 0L, deaths1 = 0L, active1 = 0L;
+        // write on a second connection while the first one streams
+        try (Connection writer = connect()) {
+            if (writer == null) {
+                mResults.addResults(caller + "no writer connection");
+                return RETURN_ERROR;
+            }
+            writer.setAutoCommit(false);
             try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(GET_COUNTRY_TOTALS_SQL)) {
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
+                    // statements to use
+                    PreparedStatement select = conn.prepareStatement(
+                            selectSql, ResultSet.TYPE_FORWARD_ONLY, 
+                            ResultSet.CONCUR_READ_ONLY);
+                    PreparedStatement delete = 
+                            writer.prepareStatement(deleteSql);
+                    PreparedStatement insert = 
+                            writer.prepareStatement(insertSql)) {
+                // remove the old dailies
+                delete.executeUpdate();
+                writer.commit();
+                // stream the rows instead of loading every total
+                select.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet resultSet = select.executeQuery()) {
                     while (resultSet.next()) {
-                        List<String> daily = new ArrayList<>();
-
-                        daily.set(3, resultSet.getString("cases"));
-                        daily.set(4, resultSet.getString("deaths"));
-                        daily.set(5, resultSet.getString("active"));
-                        insertCountryDaily(conn, resultSet.getInt("country_id"),
-                                resultSet.getDate("date"), daily);
+                        int id = resultSet.getInt(1);
+                        java.sql.Date date = resultSet.getDate(2);
+                        long cases = resultSet.getLong(3);
+                        long deaths = resultSet.getLong(4);
+                        long active = resultSet.getLong(5);
+                        // the day before counts only if it is the last row
+                        LocalDate day = date.toLocalDate();
+                        if (id != previousId || previousDate == null || 
+                                !previousDate.plusDays(1).equals(day)) {
+                            cases1 = 0L;
+                            deaths1 = 0L;
+                            active1 = 0L;
+                        }
+                        if (skipEmpty && cases == 0 && deaths == 0 && 
+                                active == 0) {
+                            skipped++;
+                        } else {
+                            LocationDaily daily = LocationDaily.fromTotals(id, 
+                                    date, cases, deaths, active, cases1, 
+                                    deaths1, active1);
+                            insert.setInt(1, daily.getId());
+                            insert.setLong(2, daily.getCases());
+                            insert.setLong(3, daily.getDeaths());
+                            insert.setLong(4, daily.getRecovered());
+                            insert.setDate(5, daily.getDate());
+                            insert.addBatch();
+                            count++;
+                            if (++pending == DAILY_BATCH_SIZE) {
+                                insert.executeBatch();
+                                writer.commit();
+                                pending = 0;
+                            }
+                        }
+                        // hold this row for the next day
+                        previousId = id;
+                        previousDate = day;
+                        cases1 = cases;
+                        deaths1 = deaths;
+                        active1 = active;
                     }
                 }
+                // write the rest
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+                writer.commit();
             } catch (SQLException e) {
-                mResults.addResults("createCountryDailies " + e.getMessage());
+                mResults.addResults(caller + e.getMessage() + ", " + 
+                        (count - pending) + " dailies kept, run again to "
+                        + "rebuild all");
+                writer.rollback();
+                return RETURN_ERROR;
+            } finally {
+                writer.setAutoCommit(true);
             }
+        } catch (SQLException e) {
+            mResults.addResults(caller + e.getMessage());
+            return RETURN_ERROR;
         }
+        if (skipped > 0) {
+            mResults.addResults(caller + skipped + " days without totals");
+        }
+        return count;
     }
     
     /**
@@ -3607,7 +2598,7 @@ public class DatabaseUtilities {
             " (country, alpha_2, alpha_3, numeric) VALUES (?, ?, ?, ?);";
         if (conn == null) {
             mResults.addResults("insertCountryCodes no connection");
-            connect();
+            return;
         }
         // loop through list
         for (int i = 27; i < lists.size(); i++) {
@@ -3648,6 +2639,8 @@ public class DatabaseUtilities {
                 }
             }
         }
+        // read the country codes again on next use
+        mReferenceData.invalidateCountryCodes();
     }
     
 
@@ -3664,7 +2657,6 @@ public class DatabaseUtilities {
                 + "population, code, source) VALUES (?, ?, ?, ?, ?, ?);";
         if (conn == null) {
             mResults.addResults("insertStatCountry no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -3686,6 +2678,8 @@ public class DatabaseUtilities {
                 statement.setString(6, list.get(6));
                 // run statement
                 statement.execute();
+                // read the stat countries again on next use
+                mReferenceData.invalidateStatCountries();
             } catch (SQLException e) {
                 mResults.addResults("insertStatCountry " + list.get(2) + " " +
                         e.getMessage());
@@ -3704,7 +2698,7 @@ public class DatabaseUtilities {
             "SELECT DISTINCT `date` FROM country_totals ORDER BY `date` ASC;";
         if (conn == null) {
             mResults.addResults("getCountryTotalsDates no connection");
-            connect();
+            return new ArrayList<>();
         }
         // declare variable
         List<java.sql.Date> dates = new ArrayList<>();
@@ -3741,7 +2735,6 @@ public class DatabaseUtilities {
             "UPDATE country_codes SET region = ? WHERE country = ?;";
         if (conn == null) {
             mResults.addResults("updateWorldRegion no connection");
-            connect();
         }
         if (conn != null) {
             try (
@@ -3768,43 +2761,8 @@ public class DatabaseUtilities {
      * @return country id
      */
     public int selectCountryIdByAlpha3(Connection conn, String alpha3) {
-        // Declare constant
-        final String SELECT_COUNTRY_ID = 
-            "SELECT id FROM country_codes WHERE alpha_3 = ?;";
-        if (conn == null) {
-            mResults.addResults("selectCountryIdByAlpha3 no connection");
-            connect();
-        }
-        // Declare variables
-        int countryId = 0;
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_COUNTRY_ID)) {
-                // add state parameter
-                statement.setString(1, alpha3);
-                // check if results
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        // get state id from results
-                        countryId = resultSet.getInt(1);
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectCountryIdByAlpha3 " + alpha3 + " " +
-                        e.getMessage());
-            }
-        }
-        // return state id
-        return countryId;
+        // return country id from the reference data
+        return mReferenceData.getCountryIdByAlpha3(conn, alpha3);
     }
     
     /**
@@ -3814,42 +2772,8 @@ public class DatabaseUtilities {
      * @return alpha-2 country code
      */
     public String selectCountryCodeByAlpha3(Connection conn, String alpha3) {
-        // Declare constant
-        final String SELECT_COUNTRY_CODE = 
-            "SELECT alpha_2 FROM country_codes WHERE alpha_3 = ?;";
-        if (conn == null) {
-            mResults.addResults("selectCountryCodeByAlpha3 no connection");
-            connect();
-        }
-        // Declare variables
-        String countryCode = "";
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_COUNTRY_CODE)) {
-                // add state parameter
-                statement.setString(1, alpha3);
-                // check if results
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        // get country code from results
-                        countryCode = resultSet.getString(1);
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectCountryCodeByAlpha3 " + alpha3 + " " +
-                        e.getMessage());
-            }
-        }
-        return countryCode;
+        // return country code from the reference data
+        return mReferenceData.getCountryCodeByAlpha3(conn, alpha3);
     }
     
     /*
@@ -3859,43 +2783,8 @@ public class DatabaseUtilities {
      * @return country code
      */
     public String selectCountryCode(Connection conn, String country) {
-        // Declare constant
-        final String SELECT_COUNTRY_CODE = 
-            "SELECT alpha_2 FROM country_codes WHERE country = ?;";
-        if (conn == null) {
-            mResults.addResults("selectCountryCode no connection");
-            connect();
-        }
-        // Declare variables
-        String countryCode = "";
-        if (conn != null) {
-            try (
-                    // statement to use
-                    PreparedStatement statement =
-                            conn.prepareStatement(SELECT_COUNTRY_CODE)) {
-                // add state parameter
-                statement.setString(1, country);
-                // check if results
-                try (
-                        // run query and get results
-                        ResultSet resultSet = statement.executeQuery()) {
-                    // check if results
-                    while (resultSet.next()) {
-                        // get state id from results
-                        countryCode = resultSet.getString(1);
-                    }
-                    // close results
-                    resultSet.close();
-                    // close statement
-                    statement.close();
-                }
-            } catch (SQLException e) {
-                mResults.addResults("selectCountryCode " + country + " " +
-                        e.getMessage());
-            }
-        }
-        // return state id
-        return countryCode;
+        // return country code from the reference data
+        return mReferenceData.getCountryCode(conn, country);
     }
 
     /**
@@ -3909,7 +2798,6 @@ public class DatabaseUtilities {
                 "INSERT INTO states (state) VALUES (?);";
         if (conn == null) {
             mResults.addResults("insertStates no connection");
-            connect();
         }
         // declare and initialize count
         if (conn != null) {
@@ -3936,6 +2824,8 @@ public class DatabaseUtilities {
             } catch (SQLException e) {
                 mResults.addResults("insertStates " + e.getMessage());
             }
+            // read the states again on next use
+            mReferenceData.invalidateStates();
         }
     }
 }
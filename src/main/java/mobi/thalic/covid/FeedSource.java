@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interface to where the scraped pages and downloaded json come from, such
+ * as the internet or saved fixtures
+ * @author Gary Larson gary@thalic.mobi
+ */
+public interface FeedSource {
+    
+    /**
+     * Method to open the content of a url
+     * @param url of the content
+     * @return stream of the content, to be closed by the caller
+     * @throws IOException if the content can not be read
+     */
+    InputStream open(String url) throws IOException;
+    
+    /**
+     * Method to test if the last content opened for a url is the same as 
+     * content a processor already processed, so it can skip it, each 
+     * processor has its own mark
+     * @param url of the content
+     * @param processor name of what processes the content
+     * @return true if the content was already processed by the processor
+     */
+    default boolean isUnchanged(String url, String processor) {
+        return false;
+    }
+    
+    /**
+     * Method to note that a processor stored everything of the last content
+     * opened for a url
+     * @param url of the content
+     * @param processor name of what processed the content
+     */
+    default void markProcessed(String url, String processor) {
+    }
+}
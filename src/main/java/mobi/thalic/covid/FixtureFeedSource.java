@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class to replay feeds from fixture files saved by RecordingFeedSource, 
+ * so the ingestion can run without a network
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class FixtureFeedSource implements FeedSource {
+    // Declare member variables
+    private final Path directory;
+    
+    /**
+     * Constructor for the fixture directory
+     * @param directory holding the fixture files
+     */
+    public FixtureFeedSource(Path directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public InputStream open(String url) throws IOException {
+        Path file = getFixture(directory, url);
+        if (!Files.isRegularFile(file)) {
+            throw new FileNotFoundException("No fixture for " + url + 
+                    " at " + file);
+        }
+        return Files.newInputStream(file);
+    }
+    
+    /**
+     * Method to get the fixture file of a url, the url without its scheme
+     * and with every character other than letters, digits, dots and dashes
+     * replaced by an underscore
+     * @param directory holding the fixture files
+     * @param url of the content
+     * @return path of the fixture file
+     */
+    public static Path getFixture(Path directory, String url) {
+        String name = url.replaceFirst("^[A-Za-z]+://", "")
+                .replaceAll("[^A-Za-z0-9.-]", "_");
+        return directory.resolve(name);
+    }
+}
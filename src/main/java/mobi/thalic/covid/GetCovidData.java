@@ -42,12 +42,14 @@ public class GetCovidData {
         //String result = covidData.createCountryDailies();
         //covidData.processWorldometerScrape();
         //covidData.createCalculations();
+        //covidData.createCalculationsParallel();
         //covidData.createCSVFile();
         //covidData.getStatData();
         //covidData.runCalculations("2020-12-28");
         covidData.runCalculationsYesterday();
         //JSONUtilities.processJsonArray();
         //covidData.getOwidData();
+        //covidData.getOwidDataIncremental();
         System.out.println(results.getResults());
     }
 }
\ No newline at end of file
@@ -23,15 +23,15 @@
  */
 package mobi.thalic.covid;
 
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -50,9 +50,24 @@ public class JSONUtilities {
             "https://covid.ourworldindata.org/data/owid-covid-data.json";
     // declare variable
     private final Results mResults;
+    private final FeedSource mSource;
     
+    /**
+     * Default constructor reading the json from the internet
+     * @param results to keep track of errors
+     */
     public JSONUtilities(Results results) {
+        this(results, null);
+    }
+    
+    /**
+     * Constructor reading the json from a feed source
+     * @param results to keep track of errors
+     * @param source of the json or null to read it from the internet
+     */
+    public JSONUtilities(Results results, FeedSource source) {
         mResults = results;
+        mSource = source == null ? new LiveFeedSource() : source;
     }
     
     /**
@@ -61,13 +76,32 @@ public class JSONUtilities {
      * @return a list of lists representation of the json
      */
     public List<List<String>> processJsonArray (String yesterday) {
+        return processJsonArray(yesterday, null);
+    }
+    
+    /**
+     * Method to process a statistiques json url, skipping a feed the 
+     * processor already stored
+     * @param yesterday date to process
+     * @param processor name of the processed mark or null to never skip
+     * @return a list of lists representation of the json, empty if skipped
+     */
+    public List<List<String>> processJsonArray (String yesterday, 
+            String processor) {
         //declare variables
         List<List<String>> dataList = new ArrayList<>();
         
         try {
-            URL url = new URL(STAT_URL_JSON);
-            Object obj = new JSONParser().parse(
-                    new InputStreamReader(url.openStream(), "UTF-8")); 
+            Object obj;
+            try (InputStreamReader reader = new InputStreamReader(
+                    mSource.open(STAT_URL_JSON), "UTF-8")) {
+                // skip the feed if it was processed before
+                if (mSource.isUnchanged(STAT_URL_JSON, processor)) {
+                    mResults.addResults("processJsonArray unchanged");
+                    return dataList;
+                }
+                obj = new JSONParser().parse(reader);
+            }
             
             JSONArray jsonArray = (JSONArray) obj;
             // create list of lists
@@ -112,9 +146,11 @@ public class JSONUtilities {
         List<List<String>> dataList = new ArrayList<>();
         
         try {
-            URL url = new URL(STAT_URL_JSON);
-            Object obj = new JSONParser().parse(
-                    new InputStreamReader(url.openStream(), "UTF-8")); 
+            Object obj;
+            try (InputStreamReader reader = new InputStreamReader(
+                    mSource.open(STAT_URL_JSON), "UTF-8")) {
+                obj = new JSONParser().parse(reader);
+            }
             
             JSONArray jsonArray = (JSONArray) obj;
             // create list of lists
@@ -202,73 +238,72 @@ public class JSONUtilities {
         //declare variables
         List<Owid> dataList = new ArrayList<>();
         
+        if (processOwidJson(owid -> dataList.add(owid))) {
+            return dataList;
+        }
+        return null;
+    }
+    
+    /**
+     * Method to stream Our World In Data json url one country at a time
+     * without holding the whole document in memory
+     * @param consumer to receive each country with its dailies
+     * @return true if the whole document was processed otherwise false
+     */
+    public boolean processOwidJson (Consumer<Owid> consumer) {
+        return processOwidJson(consumer, null, null);
+    }
+    
+    /**
+     * Method to stream Our World In Data json url skipping dailies at or 
+     * before the latest date already loaded for each country, and skipping 
+     * the document if the processor already stored it
+     * @param consumer to receive each country with its new dailies
+     * @param maxDates latest loaded date by iso code or null for all dailies
+     * @param processor name of the processed mark or null to never skip
+     * @return true if the whole document was processed or skipped otherwise 
+     * false
+     */
+    public boolean processOwidJson (Consumer<Owid> consumer, 
+            Map<String, String> maxDates, String processor) {
         try {
-            URL url = new URL(OWID_URL_JSON);
-            Object obj = new JSONParser().parse(
-                    new InputStreamReader(url.openStream(), "UTF-8")); 
-            
-            JSONObject jsonObj = (JSONObject) obj;
-            Set<String> keys = new HashSet<>();
-            for(Object o : jsonObj.keySet()) {
-                 keys.add((String) o);
-            }
-           
-            // create list of lists
-            keys.stream().map(isoCode -> { 
-                JSONObject owidJson = (JSONObject) jsonObj.get(isoCode);
-                Owid owid = new Owid();
-                owid.setIsoCode(isoCode);
-                if (owidJson.containsKey("continent")) {
-                    owid.setContinent((String) owidJson.get("continent"));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(mSource.open(OWID_URL_JSON), 
+                            "UTF-8"))) {
+                // skip the document if it was processed before
+                if (mSource.isUnchanged(OWID_URL_JSON, processor)) {
+                    mResults.addResults("processOwidJson unchanged");
+                    return true;
                 }
-                owid.setLocation((String) owidJson.get("location"));
-                if (owidJson.containsKey("population")) {
-                    double tempDouble = (double) owidJson.get("population");
-                    owid.setPopulation((long) tempDouble);
-                }
-                JSONArray jsonArray = (JSONArray) owidJson.get("data");
-                for (int i = 0; i < jsonArray.size(); i++) {
-                    JSONObject jsonData = (JSONObject) jsonArray.get(i);
-                    OwidDaily daily = new OwidDaily();
-                    daily.setDate((String) jsonData.get("date"));
-                    if (jsonData.containsKey("total_cases")) {
-                        double tempDouble = (double) jsonData.get("total_cases");
-                        daily.setTotalCases((long) tempDouble);
-                    }
-                    if (jsonData.containsKey("new_cases")) {
-                        double tempDouble = (double) jsonData.get("new_cases");
-                        daily.setNewCases((long) tempDouble);
-                    }
-                    if (jsonData.containsKey("total_deaths")) {
-                        double tempDouble = (double) jsonData.get("total_deaths");
-                        daily.setTotalDeaths((long) tempDouble);
-                    }
-                    if (jsonData.containsKey("new_deaths")) {
-                        double tempDouble = (double) jsonData.get("new_deaths");
-                        daily.setNewDeaths((long) tempDouble);
-                    }
-                    if (jsonData.containsKey("total_tests")) {
-                        double tempDouble = (double) jsonData.get("total_tests");
-                        daily.setTotalTests((long) tempDouble);
-                    }
-                    if (jsonData.containsKey("new_tests")) {
-                        double tempDouble = (double) jsonData.get("new_tests");
-                        daily.setNewTests((long) tempDouble);
-                    }
-                    owid.addDaily(daily);
-                }
-                return owid;
-            }).forEachOrdered(owid -> {
-                dataList.add(owid);
-            });
-            return dataList;
+                new JSONParser().parse(reader, 
+                        new OwidContentHandler(consumer, maxDates));
+            }
+            return true;
         } catch (FileNotFoundException e) {
-            mResults.addResults("processJsonArray FileNotFound Exception " + 
+            mResults.addResults("processOwidJson FileNotFound Exception " + 
                     e.getMessage());
         } catch (IOException | ParseException e) {
-            mResults.addResults("processJsonArray IO or parse Exception " + 
+            mResults.addResults("processOwidJson IO or parse Exception " + 
                     e.getMessage());
         }  
-        return null;
+        return false;
+    }
+    
+    /**
+     * Method to note that a processor stored the statistiques json it read
+     * last, so the same feed is skipped next time
+     * @param processor name of the processed mark
+     */
+    public void markStatProcessed(String processor) {
+        mSource.markProcessed(STAT_URL_JSON, processor);
+    }
+    
+    /**
+     * Method to note that a processor stored the Our World In Data json it
+     * read last, so the same document is skipped next time
+     * @param processor name of the processed mark
+     */
+    public void markOwidProcessed(String processor) {
+        mSource.markProcessed(OWID_URL_JSON, processor);
     }
 }
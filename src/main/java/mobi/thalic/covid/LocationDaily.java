@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+/**
+ * Class to hold one row of country or state dailies
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class LocationDaily {
+    // Declare member variables
+    private final int id;
+    private final java.sql.Date date;
+    private final long cases;
+    private final long deaths;
+    private final long recovered;
+    
+    /**
+     * Constructor for all variables
+     * @param id of the country or state
+     * @param date of the daily
+     * @param cases new cases of the day
+     * @param deaths new deaths of the day
+     * @param recovered new recovered cases of the day
+     */
+    public LocationDaily(int id, java.sql.Date date, long cases, long deaths, 
+            long recovered) {
+        this.id = id;
+        this.date = date;
+        this.cases = cases;
+        this.deaths = deaths;
+        this.recovered = recovered;
+    }
+    
+    /**
+     * Method to create a daily from the totals of the day and the day before, 
+     * negative changes are set to 0
+     * @param id of the country or state
+     * @param date of the daily
+     * @param cases total cases of the day
+     * @param deaths total deaths of the day
+     * @param active total active cases of the day
+     * @param cases1 total cases of the day before
+     * @param deaths1 total deaths of the day before
+     * @param active1 total active cases of the day before
+     * @return daily of the day
+     */
+    public static LocationDaily fromTotals(int id, java.sql.Date date, 
+            long cases, long deaths, long active, long cases1, long deaths1, 
+            long active1) {
+        return new LocationDaily(id, date, 
+                Math.max(cases - cases1, 0L), 
+                Math.max(deaths - deaths1, 0L), 
+                Math.max(cases - deaths - active - 
+                        (cases1 - deaths1 - active1), 0L));
+    }
+    
+    /**
+     * Getter for id
+     * @return id of the country or state
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Getter for date
+     * @return date of the daily
+     */
+    public java.sql.Date getDate() {
+        return date;
+    }
+    
+    /**
+     * Getter for cases
+     * @return new cases of the day
+     */
+    public long getCases() {
+        return cases;
+    }
+    
+    /**
+     * Getter for deaths
+     * @return new deaths of the day
+     */
+    public long getDeaths() {
+        return deaths;
+    }
+    
+    /**
+     * Getter for recovered
+     * @return new recovered cases of the day
+     */
+    public long getRecovered() {
+        return recovered;
+    }
+}
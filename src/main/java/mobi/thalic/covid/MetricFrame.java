@@ -0,0 +1,335 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to hold the calculated metrics of one date in columns indexed by 
+ * location id
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class MetricFrame {
+    
+    /**
+     * Metrics that can be held in the frame
+     */
+    public enum Metric {
+        POPULATION, CASES100K, DEATHS100K, ACTIVE100K, CASES100K15, 
+        DEATHS100K15, CASES100K30, DEATHS100K30, OVERALL
+    }
+    
+    // Declare member variables
+    private final LocationRegistry registry;
+    private final Map<Metric, long[]> longs = new EnumMap<>(Metric.class);
+    private final Map<Metric, double[]> doubles = new EnumMap<>(Metric.class);
+    private final Map<Metric, int[]> ranks = new EnumMap<>(Metric.class);
+    private final Map<Metric, int[]> scores = new EnumMap<>(Metric.class);
+    
+    /**
+     * Default constructor
+     * @param registry of the locations in the frame
+     */
+    public MetricFrame(LocationRegistry registry) {
+        this.registry = registry;
+    }
+    
+    /**
+     * Getter for number of locations
+     * @return number of locations
+     */
+    public int size() {
+        return registry.size();
+    }
+    
+    /**
+     * Getter for name
+     * @param id of the location
+     * @return name of the location
+     */
+    public String getName(int id) {
+        return registry.getName(id);
+    }
+    
+    /**
+     * Setter for long values of a metric
+     * @param metric to set
+     * @param values indexed by location id
+     */
+    public void setLongs(Metric metric, long[] values) {
+        longs.put(metric, values);
+    }
+    
+    /**
+     * Getter for a long value
+     * @param metric to get
+     * @param id of the location
+     * @return value of the location
+     */
+    public long getLong(Metric metric, int id) {
+        return longs.get(metric)[id];
+    }
+    
+    /**
+     * Setter for double values of a metric
+     * @param metric to set
+     * @param values indexed by location id
+     */
+    public void setDoubles(Metric metric, double[] values) {
+        doubles.put(metric, values);
+    }
+    
+    /**
+     * Getter for a double value
+     * @param metric to get
+     * @param id of the location
+     * @return value of the location
+     */
+    public double getDouble(Metric metric, int id) {
+        return doubles.get(metric)[id];
+    }
+    
+    /**
+     * Getter for double values of a metric
+     * @param metric to get
+     * @return values indexed by location id
+     */
+    public double[] getDoubles(Metric metric) {
+        return doubles.get(metric);
+    }
+    
+    /**
+     * Getter for the metrics with double values
+     * @return metrics in declaration order
+     */
+    public List<Metric> getDoubleMetrics() {
+        return new ArrayList<>(doubles.keySet());
+    }
+    
+    /**
+     * Method to test for double values of a metric
+     * @param metric to test
+     * @return true if the metric has values
+     */
+    public boolean hasDoubles(Metric metric) {
+        return doubles.containsKey(metric);
+    }
+    
+    /**
+     * Setter for scores of a metric
+     * @param metric to set
+     * @param values scores indexed by location id
+     */
+    public void setScores(Metric metric, int[] values) {
+        scores.put(metric, values);
+    }
+    
+    /**
+     * Getter for a score
+     * @param metric to get
+     * @param id of the location
+     * @return score of the location
+     */
+    public int getScore(Metric metric, int id) {
+        return scores.get(metric)[id];
+    }
+    
+    /**
+     * Method to test for scores of a metric
+     * @param metric to test
+     * @return true if the metric has scores
+     */
+    public boolean hasScores(Metric metric) {
+        return scores.containsKey(metric);
+    }
+    
+    /**
+     * Setter for ranks of a metric
+     * @param metric to set
+     * @param values ranks indexed by location id
+     */
+    public void setRanks(Metric metric, int[] values) {
+        ranks.put(metric, values);
+    }
+    
+    /**
+     * Getter for a rank
+     * @param metric to get
+     * @param id of the location
+     * @return rank of the location
+     */
+    public int getRank(Metric metric, int id) {
+        return ranks.get(metric)[id];
+    }
+    
+    /**
+     * Method to rank the double values of a metric, lowest value is rank 1 
+     * and equal values share the rank
+     * @param metric to rank
+     */
+    public void rankAscending(Metric metric) {
+        ranks.put(metric, rankAscending(doubles.get(metric)));
+    }
+    
+    /**
+     * Method to rank values, lowest value is rank 1 and equal values share 
+     * the rank
+     * @param values indexed by location id
+     * @return ranks indexed by location id
+     */
+    public static int[] rankAscending(double[] values) {
+        // Declare and initialize variables
+        double[] sorted = values.clone();
+        int[] result = new int[values.length];
+        Arrays.sort(sorted);
+        // rank is one more than the number of lower values
+        for (int id = 0; id < values.length; id++) {
+            result[id] = lowerBound(sorted, values[id]) + 1;
+        }
+        return result;
+    }
+    
+    /**
+     * Method to rank the long values of a metric, highest value is rank 1 
+     * and equal values share the rank
+     * @param metric to rank
+     */
+    public void rankLongsDescending(Metric metric) {
+        // Declare and initialize variables
+        long[] values = longs.get(metric);
+        long[] sorted = values.clone();
+        int[] result = new int[values.length];
+        Arrays.sort(sorted);
+        // rank is one more than the number of higher values
+        for (int id = 0; id < values.length; id++) {
+            result[id] = values.length - upperBound(sorted, values[id]) + 1;
+        }
+        ranks.put(metric, result);
+    }
+    
+    /**
+     * Method to rank the scores of a metric, highest score is rank 1 and 
+     * equal scores share the rank
+     * @param metric to rank
+     */
+    public void rankScoresDescending(Metric metric) {
+        // Declare and initialize variables
+        int[] values = scores.get(metric);
+        int[] sorted = values.clone();
+        int[] result = new int[values.length];
+        Arrays.sort(sorted);
+        // rank is one more than the number of higher scores
+        for (int id = 0; id < values.length; id++) {
+            result[id] = values.length - upperBound(sorted, values[id]) + 1;
+        }
+        ranks.put(metric, result);
+    }
+    
+    /**
+     * Method to score the double values of a metric against boundaries 
+     * created from the values
+     * @param metric to score
+     */
+    public void score(Metric metric) {
+        scores.put(metric, score(doubles.get(metric)));
+    }
+    
+    /**
+     * Method to score values against boundaries created from the values
+     * @param values indexed by location id
+     * @return scores indexed by location id
+     */
+    public static int[] score(double[] values) {
+        // Declare and initialize variable
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        // create the boundaries and score each location
+        return ScoreBuckets.createScores(ScoreBuckets.createBoundaries(sorted), 
+                values);
+    }
+    
+    /**
+     * Method to find the first position not lower than a value
+     * @param sorted values in ascending order
+     * @param value to find
+     * @return position of the first value not lower
+     */
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Method to find the first position higher than a value
+     * @param sorted values in ascending order
+     * @param value to find
+     * @return position of the first higher value
+     */
+    private static int upperBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Method to find the first position higher than a value
+     * @param sorted values in ascending order
+     * @param value to find
+     * @return position of the first higher value
+     */
+    private static int upperBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Class to hold the fixed precision number calculations
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class NumberUtilities {
+    // Declare constants
+    private static final double SCALE = 100000.0;
+    private static final double PER_100K = 100000.0;
+    private static final double PERCENT = 100.0;
+    private static final double TIE_ULPS = 16.0;
+    private static final double MAX_EXACT = 0x1p52;
+    
+    /**
+     * Method to round a value to 5 decimal places the way "%.5f" does, 
+     * halves of the decimal value round away from zero
+     * @param value to round
+     * @return rounded value
+     */
+    public static double round5(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return value;
+        }
+        double scaled = Math.abs(value) * SCALE;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor - 0.5;
+        double rounded;
+        if (Math.abs(fraction) <= TIE_ULPS * Math.ulp(scaled) || 
+                scaled >= MAX_EXACT) {
+            // near a decimal half the binary product can fall on either 
+            // side, so round the decimal value itself
+            rounded = BigDecimal.valueOf(Math.abs(value))
+                    .setScale(5, RoundingMode.HALF_UP).doubleValue();
+        } else {
+            rounded = (fraction > 0 ? floor + 1 : floor) / SCALE;
+        }
+        return value < 0 ? -rounded : rounded;
+    }
+    
+    /**
+     * Method to calculate a value per 100,000 population to 5 decimal places
+     * @param value to calculate
+     * @param population to divide by
+     * @return value per 100,000 population or 0 without a population
+     */
+    public static double per100k(long value, long population) {
+        if (population == 0) {
+            return 0.0;
+        }
+        return round5(((double) value / population) * PER_100K);
+    }
+    
+    /**
+     * Method to calculate a percent to 5 decimal places
+     * @param number to calculate
+     * @param total to divide by
+     * @return percent or 0 without a total
+     */
+    public static double percent(long number, long total) {
+        if (total == 0) {
+            return 0.0;
+        }
+        return round5(((double) number / total) * PERCENT);
+    }
+}
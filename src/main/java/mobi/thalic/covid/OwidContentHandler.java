@@ -0,0 +1,226 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import org.json.simple.parser.ContentHandler;
+
+/**
+ * Class to stream Our World In Data json one country at a time
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class OwidContentHandler implements ContentHandler {
+    // Declare constants
+    private final int COUNTRY_DEPTH = 2;
+    private final int DATA_DEPTH = 3;
+    private final int DAILY_DEPTH = 4;
+    // Declare member variables
+    private final Consumer<Owid> mConsumer;
+    private final Map<String, String> mMaxDates;
+    private int depth;
+    private String key;
+    private boolean inData;
+    private Owid owid;
+    private OwidDaily daily;
+    private String maxDate;
+    
+    /**
+     * Default constructor
+     * @param consumer to receive each country when it is complete
+     */
+    public OwidContentHandler(Consumer<Owid> consumer) {
+        this(consumer, null);
+    }
+    
+    /**
+     * Constructor that skips dailies already loaded
+     * @param consumer to receive each country when it is complete
+     * @param maxDates latest loaded date by iso code or null for all dailies
+     */
+    public OwidContentHandler(Consumer<Owid> consumer, 
+            Map<String, String> maxDates) {
+        mConsumer = consumer;
+        mMaxDates = maxDates;
+    }
+
+    @Override
+    public void startJSON() {
+        depth = 0;
+        inData = false;
+        owid = null;
+        daily = null;
+    }
+
+    @Override
+    public void endJSON() {}
+
+    @Override
+    public boolean startObject() {
+        depth++;
+        if (depth == COUNTRY_DEPTH) {
+            // the root entry key is the iso code
+            owid = new Owid();
+            owid.setIsoCode(key);
+            maxDate = mMaxDates == null ? null : mMaxDates.get(key);
+        } else if (depth == DAILY_DEPTH && inData) {
+            daily = new OwidDaily();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObject() {
+        if (depth == DAILY_DEPTH && inData && daily != null) {
+            if (isNewDaily(daily)) {
+                owid.addDaily(daily);
+            }
+            daily = null;
+        } else if (depth == COUNTRY_DEPTH && owid != null) {
+            // hand off the completed country and release it
+            if (maxDate == null || !owid.getOwidDaily().isEmpty()) {
+                mConsumer.accept(owid);
+            }
+            owid = null;
+        }
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        this.key = key;
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        return true;
+    }
+
+    @Override
+    public boolean startArray() {
+        depth++;
+        if (depth == DATA_DEPTH && "data".equals(key)) {
+            inData = true;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        if (depth == DATA_DEPTH) {
+            inData = false;
+        }
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) {
+        if (depth == COUNTRY_DEPTH && owid != null) {
+            setCountryValue(value);
+        } else if (depth == DAILY_DEPTH && daily != null) {
+            setDailyValue(value);
+        }
+        return true;
+    }
+    
+    /**
+     * Method to test if a daily is after the latest loaded date
+     * @param daily to test
+     * @return true if the daily should be kept
+     */
+    private boolean isNewDaily(OwidDaily daily) {
+        if (maxDate == null) {
+            return true;
+        }
+        // iso dates compare in date order
+        return daily.getDate() != null && daily.getDate().compareTo(maxDate) > 0;
+    }
+    
+    /**
+     * Method to set a country level value
+     * @param value to set
+     */
+    private void setCountryValue(Object value) {
+        switch (key) {
+            case "continent":
+                owid.setContinent((String) value);
+                break;
+            case "location":
+                owid.setLocation((String) value);
+                break;
+            case "population":
+                owid.setPopulation(toLong(value));
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Method to set a daily value
+     * @param value to set
+     */
+    private void setDailyValue(Object value) {
+        switch (key) {
+            case "date":
+                daily.setDate((String) value);
+                break;
+            case "total_cases":
+                daily.setTotalCases(toLong(value));
+                break;
+            case "new_cases":
+                daily.setNewCases(toLong(value));
+                break;
+            case "total_deaths":
+                daily.setTotalDeaths(toLong(value));
+                break;
+            case "new_deaths":
+                daily.setNewDeaths(toLong(value));
+                break;
+            case "total_tests":
+                daily.setTotalTests(toLong(value));
+                break;
+            case "new_tests":
+                daily.setNewTests(toLong(value));
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Method to convert a json number to a long
+     * @param value to convert
+     * @return long value or 0 if not a number
+     */
+    private long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return 0L;
+    }
+}
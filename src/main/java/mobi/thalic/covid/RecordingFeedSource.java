@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Class to save every feed read from another source as a fixture file for
+ * FixtureFeedSource before handing it on
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class RecordingFeedSource implements FeedSource {
+    // Declare member variables
+    private final FeedSource source;
+    private final Path directory;
+    
+    /**
+     * Constructor for all variables
+     * @param source to read the feeds from
+     * @param directory to save the fixture files in
+     */
+    public RecordingFeedSource(FeedSource source, Path directory) {
+        this.source = source;
+        this.directory = directory;
+    }
+    
+    @Override
+    public InputStream open(String url) throws IOException {
+        Path file = FixtureFeedSource.getFixture(directory, url);
+        Files.createDirectories(directory);
+        // save to a temporary file so a failed read keeps the old fixture
+        Path temp = Files.createTempFile(directory, "fixture", ".tmp");
+        try (InputStream in = source.open(url)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return Files.newInputStream(file);
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class to keep the country and state ids, codes and populations in memory, 
+ * each table is read once on first use and again after it is invalidated
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ReferenceDataCache {
+    // Declare constants
+    private final String SELECT_COUNTRY_LABELS_SQL = 
+            "SELECT label, country_id FROM country_labels;";
+    private final String SELECT_COUNTRY_CODES_SQL = 
+            "SELECT id, country, alpha_2, alpha_3, population " 
+            + "FROM country_codes;";
+    private final String SELECT_STATES_SQL = 
+            "SELECT id, state, population FROM states;";
+    private final String SELECT_STAT_COUNTRIES_SQL = 
+            "SELECT country, country_id FROM stat_countries;";
+    // Declare member variables
+    private final Results mResults;
+    private Map<String, Integer> countryIds;
+    private Map<Integer, Long> countryPopulations;
+    private Map<String, String> countryCodes;
+    private Map<String, String> alpha3Codes;
+    private Map<String, Integer> alpha3Ids;
+    private Map<String, Integer> stateIds;
+    private Map<Integer, Long> statePopulations;
+    private Map<String, Integer> statCountryIds;
+    
+    /**
+     * Default constructor
+     * @param results of all activities
+     */
+    public ReferenceDataCache(Results results) {
+        mResults = results;
+    }
+    
+    /**
+     * Method to get the id of a country label
+     * @param conn to the database
+     * @param label of the country
+     * @return country id or 0 if not found
+     */
+    public synchronized int getCountryId(Connection conn, String label) {
+        if (countryIds == null) {
+            loadCountryLabels(conn);
+        }
+        return countryIds == null ? 0 : countryIds.getOrDefault(key(label), 0);
+    }
+    
+    /**
+     * Method to get the population of a country
+     * @param conn to the database
+     * @param countryId of the country
+     * @return population or 0 if not found
+     */
+    public synchronized long getCountryPopulation(Connection conn, 
+            int countryId) {
+        if (countryPopulations == null) {
+            loadCountryCodes(conn);
+        }
+        return countryPopulations == null ? 0L : 
+                countryPopulations.getOrDefault(countryId, 0L);
+    }
+    
+    /**
+     * Method to get the alpha 2 code of a country
+     * @param conn to the database
+     * @param country name of the country
+     * @return country code or empty if not found
+     */
+    public synchronized String getCountryCode(Connection conn, 
+            String country) {
+        if (countryCodes == null) {
+            loadCountryCodes(conn);
+        }
+        return countryCodes == null ? "" : 
+                countryCodes.getOrDefault(key(country), "");
+    }
+    
+    /**
+     * Method to get the alpha 2 code of a country by its alpha 3 code
+     * @param conn to the database
+     * @param alpha3 code of the country
+     * @return country code or empty if not found
+     */
+    public synchronized String getCountryCodeByAlpha3(Connection conn, 
+            String alpha3) {
+        if (alpha3Codes == null) {
+            loadCountryCodes(conn);
+        }
+        return alpha3Codes == null ? "" : 
+                alpha3Codes.getOrDefault(key(alpha3), "");
+    }
+    
+    /**
+     * Method to get the id of a country by its alpha 3 code
+     * @param conn to the database
+     * @param alpha3 code of the country
+     * @return country id or 0 if not found
+     */
+    public synchronized int getCountryIdByAlpha3(Connection conn, 
+            String alpha3) {
+        if (alpha3Ids == null) {
+            loadCountryCodes(conn);
+        }
+        return alpha3Ids == null ? 0 : alpha3Ids.getOrDefault(key(alpha3), 0);
+    }
+    
+    /**
+     * Method to get the id of a state
+     * @param conn to the database
+     * @param state name of the state
+     * @return state id or 0 if not found
+     */
+    public synchronized int getStateId(Connection conn, String state) {
+        if (stateIds == null) {
+            loadStates(conn);
+        }
+        return stateIds == null ? 0 : stateIds.getOrDefault(key(state), 0);
+    }
+    
+    /**
+     * Method to get the population of a state
+     * @param conn to the database
+     * @param state name of the state
+     * @return population or 0 if not found
+     */
+    public synchronized long getStatePopulation(Connection conn, 
+            String state) {
+        int stateId = getStateId(conn, state);
+        return statePopulations == null ? 0L : 
+                statePopulations.getOrDefault(stateId, 0L);
+    }
+    
+    /**
+     * Method to get the id of a stat country
+     * @param conn to the database
+     * @param country name of the country
+     * @return country id or 0 if not found
+     */
+    public synchronized int getStatCountryId(Connection conn, 
+            String country) {
+        if (statCountryIds == null) {
+            loadStatCountries(conn);
+        }
+        return statCountryIds == null ? 0 : 
+                statCountryIds.getOrDefault(key(country), 0);
+    }
+    
+    /**
+     * Method to keep a country population written to the database
+     * @param countryId of the country
+     * @param population written
+     */
+    public synchronized void setCountryPopulation(int countryId, 
+            long population) {
+        if (countryPopulations != null) {
+            countryPopulations.put(countryId, population);
+        }
+    }
+    
+    /**
+     * Method to keep a state population written to the database
+     * @param stateId of the state
+     * @param population written
+     */
+    public synchronized void setStatePopulation(int stateId, 
+            long population) {
+        if (statePopulations != null) {
+            statePopulations.put(stateId, population);
+        }
+    }
+    
+    /**
+     * Method to read the country labels again on next use
+     */
+    public synchronized void invalidateCountryLabels() {
+        countryIds = null;
+    }
+    
+    /**
+     * Method to read the country codes and populations again on next use
+     */
+    public synchronized void invalidateCountryCodes() {
+        countryPopulations = null;
+        countryCodes = null;
+        alpha3Codes = null;
+        alpha3Ids = null;
+    }
+    
+    /**
+     * Method to read the states again on next use
+     */
+    public synchronized void invalidateStates() {
+        stateIds = null;
+        statePopulations = null;
+    }
+    
+    /**
+     * Method to read the stat countries again on next use
+     */
+    public synchronized void invalidateStatCountries() {
+        statCountryIds = null;
+    }
+    
+    /**
+     * Method to read every table again on next use
+     */
+    public synchronized void invalidate() {
+        invalidateCountryLabels();
+        invalidateCountryCodes();
+        invalidateStates();
+        invalidateStatCountries();
+    }
+    
+    /**
+     * Method to create a lookup key that matches like the database 
+     * collation, ignoring case and trailing spaces
+     * @param value to look up
+     * @return key of the value
+     */
+    private String key(String value) {
+        if (value == null) {
+            return "";
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Method to load the country labels
+     * @param conn to the database
+     */
+    private void loadCountryLabels(Connection conn) {
+        // test connection
+        if (conn == null) {
+            mResults.addResults("loadCountryLabels no connection");
+            return;
+        }
+        // Declare variable
+        Map<String, Integer> ids = new HashMap<>();
+        try (
+                // statement to use
+                PreparedStatement statement = 
+                        conn.prepareStatement(SELECT_COUNTRY_LABELS_SQL);
+                // run query and get results
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.put(key(resultSet.getString(1)), resultSet.getInt(2));
+            }
+            countryIds = ids;
+        } catch (SQLException e) {
+            mResults.addResults("loadCountryLabels " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Method to load the country codes, ids and populations
+     * @param conn to the database
+     */
+    private void loadCountryCodes(Connection conn) {
+        // test connection
+        if (conn == null) {
+            mResults.addResults("loadCountryCodes no connection");
+            return;
+        }
+        // Declare variables
+        Map<Integer, Long> populations = new HashMap<>();
+        Map<String, String> codes = new HashMap<>();
+        Map<String, String> alpha3 = new HashMap<>();
+        Map<String, Integer> ids = new HashMap<>();
+        try (
+                // statement to use
+                PreparedStatement statement = 
+                        conn.prepareStatement(SELECT_COUNTRY_CODES_SQL);
+                // run query and get results
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                populations.put(resultSet.getInt(1), resultSet.getLong(5));
+                if (resultSet.getString(2) != null) {
+                    codes.put(key(resultSet.getString(2)), 
+                            resultSet.getString(3));
+                }
+                if (resultSet.getString(4) != null) {
+                    alpha3.put(key(resultSet.getString(4)), 
+                            resultSet.getString(3));
+                    ids.put(key(resultSet.getString(4)), resultSet.getInt(1));
+                }
+            }
+            countryPopulations = populations;
+            countryCodes = codes;
+            alpha3Codes = alpha3;
+            alpha3Ids = ids;
+        } catch (SQLException e) {
+            mResults.addResults("loadCountryCodes " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Method to load the states and populations
+     * @param conn to the database
+     */
+    private void loadStates(Connection conn) {
+        // test connection
+        if (conn == null) {
+            mResults.addResults("loadStates no connection");
+            return;
+        }
+        // Declare variables
+        Map<String, Integer> ids = new HashMap<>();
+        Map<Integer, Long> populations = new HashMap<>();
+        try (
+                // statement to use
+                PreparedStatement statement = 
+                        conn.prepareStatement(SELECT_STATES_SQL);
+                // run query and get results
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.put(key(resultSet.getString(2)), resultSet.getInt(1));
+                populations.put(resultSet.getInt(1), resultSet.getLong(3));
+            }
+            stateIds = ids;
+            statePopulations = populations;
+        } catch (SQLException e) {
+            mResults.addResults("loadStates " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Method to load the stat countries
+     * @param conn to the database
+     */
+    private void loadStatCountries(Connection conn) {
+        // test connection
+        if (conn == null) {
+            mResults.addResults("loadStatCountries no connection");
+            return;
+        }
+        // Declare variable
+        Map<String, Integer> ids = new HashMap<>();
+        try (
+                // statement to use
+                PreparedStatement statement = 
+                        conn.prepareStatement(SELECT_STAT_COUNTRIES_SQL);
+                // run query and get results
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.put(key(resultSet.getString(1)), resultSet.getInt(2));
+            }
+            statCountryIds = ids;
+        } catch (SQLException e) {
+            mResults.addResults("loadStatCountries " + e.getMessage());
+        }
+    }
+}
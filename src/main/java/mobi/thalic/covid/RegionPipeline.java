@@ -0,0 +1,453 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import static java.lang.Math.round;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import mobi.thalic.covid.MetricFrame.Metric;
+
+/**
+ * Class to run the calculations of the front end data for any level of 
+ * locations, the level is supplied by a region source and every stage runs 
+ * once for the whole set of locations
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class RegionPipeline {
+    // Declare constants
+    public final int RETURN_OK = 2;
+    public final int RETURN_NO_DATA = 0;
+    public final int RETURN_ERROR = -1;
+    private final int[] WINDOWS = {15, 30};
+    // Declare member variable
+    private final Executor executor;
+    
+    /**
+     * Default constructor, every metric is ranked and scored in turn
+     */
+    public RegionPipeline() {
+        this(null);
+    }
+    
+    /**
+     * Constructor to rank and score the metrics of a date concurrently
+     * @param executor to run each metric on or null to run them in turn
+     */
+    public RegionPipeline(Executor executor) {
+        this.executor = executor;
+    }
+    
+    /**
+     * Method to create and write the calculations of a level for a date
+     * @param conn connection to the database
+     * @param source of the level
+     * @param date of the data
+     * @return RETURN_OK, RETURN_NO_DATA or RETURN_ERROR
+     */
+    public int calculate(Connection conn, RegionSource source, 
+            java.sql.Date date) {
+        return calculate(conn, source, date, new RollingWindowStore());
+    }
+    
+    /**
+     * Method to create and write the calculations of a level for a date, 
+     * reusing the earlier dates held in a store, so calculating dates in 
+     * order reads each date only once
+     * @param conn connection to the database
+     * @param source of the level
+     * @param date of the data
+     * @param store of earlier dates of the same level
+     * @return RETURN_OK, RETURN_NO_DATA or RETURN_ERROR
+     */
+    public int calculate(Connection conn, RegionSource source, 
+            java.sql.Date date, RollingWindowStore store) {
+        // get totals of the parent
+        RegionTotals totals = source.getTotals(conn, date);
+        // get every location total for the date in one query
+        RegionSnapshot snapshot = source.getSnapshot(conn, date);
+        // test for data
+        if (totals == null || snapshot == null || snapshot.size() == 0) {
+            return RETURN_NO_DATA;
+        }
+        store.add(snapshot);
+        // read the day before each window only if the store does not hold it
+        for (int days : WINDOWS) {
+            java.sql.Date oldDate = getWindowStart(date, days);
+            if (!store.contains(oldDate)) {
+                RegionSnapshot oldSnapshot = source.getSnapshot(conn, oldDate);
+                if (oldSnapshot == null) {
+                    return RETURN_NO_DATA;
+                }
+                store.add(oldSnapshot);
+            }
+        }
+        // create every metric of the date
+        MetricFrame frame = createMetricFrame(snapshot, store);
+        // Declare calculations of the date
+        List<Calculations> calcs = new ArrayList<>(frame.size());
+        // loop through locations and populate the data into calculations
+        for (int id = 0; id < frame.size(); id++) {
+            calcs.add(createCalculation(frame, snapshot, date, id, totals));
+        }
+        // write all calculations of the date at once
+        if (source.insertCalculations(conn, calcs) == RETURN_ERROR) {
+            return RETURN_ERROR;
+        }
+        return RETURN_OK;
+    }
+    
+    /**
+     * Method to create the ranks and scores of every metric of a date
+     * @param snapshot of the date
+     * @param store holding the days before the windows
+     * @return metrics indexed by the location ids of the snapshot
+     */
+    public MetricFrame createMetricFrame(RegionSnapshot snapshot, 
+            RollingWindowStore store) {
+        // Declare and initialize variable
+        MetricFrame frame = new MetricFrame(snapshot.getRegistry());
+        // run each stage
+        addTotals(frame, snapshot);
+        addWindow(frame, snapshot, store, 15, Metric.CASES100K15, 
+                Metric.DEATHS100K15);
+        addWindow(frame, snapshot, store, 30, Metric.CASES100K30, 
+                Metric.DEATHS100K30);
+        rankAndScore(frame);
+        addOverall(frame);
+        return frame;
+    }
+    
+    /**
+     * Method to get the day before a window, the change over the window is 
+     * taken from that day
+     * @param date last day of the window
+     * @param days in the window
+     * @return day before the window
+     */
+    private java.sql.Date getWindowStart(java.sql.Date date, int days) {
+        return java.sql.Date.valueOf(date.toLocalDate().minusDays(days + 1));
+    }
+    
+    /**
+     * Stage to add the population ranks and per 100,000 population values
+     * @param frame to add to
+     * @param snapshot of the date
+     */
+    public void addTotals(MetricFrame frame, RegionSnapshot snapshot) {
+        // Declare and initialize variables
+        int size = snapshot.size();
+        long[] population = new long[size];
+        double[] cases100k = new double[size];
+        double[] deaths100k = new double[size];
+        double[] active100k = new double[size];
+        // copy values of each location
+        for (int id = 0; id < size; id++) {
+            population[id] = snapshot.getPopulation(id);
+            cases100k[id] = snapshot.getCases100k(id);
+            deaths100k[id] = snapshot.getDeaths100k(id);
+            active100k[id] = snapshot.getActive100k(id);
+        }
+        // create population ranks
+        frame.setLongs(Metric.POPULATION, population);
+        frame.rankLongsDescending(Metric.POPULATION);
+        // add per 100,000 population values
+        frame.setDoubles(Metric.CASES100K, cases100k);
+        frame.setDoubles(Metric.DEATHS100K, deaths100k);
+        frame.setDoubles(Metric.ACTIVE100K, active100k);
+    }
+    
+    /**
+     * Stage to add the cases and deaths average values of a window of days, 
+     * nothing is added when there is no older data
+     * @param frame to add to
+     * @param snapshot of the date
+     * @param store holding the date and the day before the window
+     * @param days in the window
+     * @param casesMetric to hold the cases average
+     * @param deathsMetric to hold the deaths average
+     */
+    public void addWindow(MetricFrame frame, RegionSnapshot snapshot, 
+            RollingWindowStore store, int days, Metric casesMetric, 
+            Metric deathsMetric) {
+        // test for older data
+        if (!store.hasData(getWindowStart(snapshot.getDate(), days))) {
+            return;
+        }
+        // create averages
+        frame.setDoubles(casesMetric, createDayAverages(store.getChanges(
+                snapshot, Metric.CASES100K, days + 1), days));
+        frame.setDoubles(deathsMetric, createDayAverages(store.getChanges(
+                snapshot, Metric.DEATHS100K, days + 1), days));
+    }
+    
+    /**
+     * Stage to add the overall scores and ranks
+     * @param frame to add to, with the deaths, active and 15 days scores
+     */
+    public void addOverall(MetricFrame frame) {
+        frame.setScores(Metric.OVERALL, createOverallScores(frame));
+        frame.rankScoresDescending(Metric.OVERALL);
+    }
+    
+    /**
+     * Stage to rank and score every metric with double values, each metric 
+     * only depends on its own values so with an executor they run 
+     * concurrently and are added to the frame in metric order
+     * @param frame with the values
+     */
+    public void rankAndScore(MetricFrame frame) {
+        // Declare and initialize variable
+        List<Metric> metrics = frame.getDoubleMetrics();
+        // rank and score in turn
+        if (executor == null) {
+            for (Metric metric : metrics) {
+                frame.rankAscending(metric);
+                frame.score(metric);
+            }
+            return;
+        }
+        // start every metric
+        List<CompletableFuture<int[]>> ranks = new ArrayList<>();
+        List<CompletableFuture<int[]>> scores = new ArrayList<>();
+        for (Metric metric : metrics) {
+            double[] values = frame.getDoubles(metric);
+            ranks.add(CompletableFuture.supplyAsync(
+                    () -> MetricFrame.rankAscending(values), executor));
+            scores.add(CompletableFuture.supplyAsync(
+                    () -> MetricFrame.score(values), executor));
+        }
+        // add the results in metric order
+        try {
+            for (int i = 0; i < metrics.size(); i++) {
+                frame.setRanks(metrics.get(i), ranks.get(i).join());
+                frame.setScores(metrics.get(i), scores.get(i).join());
+            }
+        } catch (CompletionException e) {
+            // fail the same way as ranking in turn
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Method to create an average of ? days of data
+     * @param changes over the window indexed by location id or NaN if the 
+     * location has no older data
+     * @param days to average
+     * @return averages indexed by location id
+     */
+    private double[] createDayAverages(double[] changes, int days) {
+        double[] averages = new double[changes.length];
+        for (int id = 0; id < changes.length; id++) {
+            double temp = 0.0;
+            if (!Double.isNaN(changes[id])) {
+                temp = calculateAverage(changes[id], days);
+            }
+            if (temp < 0.0) {
+                temp = 0.0;
+            }
+            averages[id] = temp;
+        }
+        return averages;
+    }
+    
+    /**
+     * Method to create overall scores from the deaths, active and 15 days 
+     * average scores
+     * @param frame with the scores
+     * @return overall scores indexed by location id
+     */
+    private int[] createOverallScores(MetricFrame frame) {
+        // Declare variables
+        int[] overall = new int[frame.size()];
+        boolean hasCases15 = frame.hasScores(Metric.CASES100K15);
+        boolean hasDeaths15 = frame.hasScores(Metric.DEATHS100K15);
+        // loop through locations
+        for (int id = 0; id < overall.length; id++) {
+            // calculate overall score
+            double count = 4.0;
+            int scores = frame.getScore(Metric.DEATHS100K, id) + 
+                    frame.getScore(Metric.ACTIVE100K, id);
+            if (hasCases15) {
+                scores += frame.getScore(Metric.CASES100K15, id);
+            } else {
+                count--;
+            }
+            if (hasDeaths15) {
+                scores += frame.getScore(Metric.DEATHS100K15, id);
+            } else {
+                count--;
+            }
+            int score = (int) round(scores / count);
+            // check score
+            if (score < 1 || score > 13) {
+                score = 13;
+            }
+            overall[id] = score;
+        }
+        return overall;
+    }
+    
+    /**
+     * Method to populate the calculations of a location
+     * @param frame with the metrics of the date
+     * @param snapshot with the totals of the date
+     * @param date of the data
+     * @param id of the location
+     * @param totals of the parent of the locations
+     * @return calculations of the location
+     */
+    public Calculations createCalculation(MetricFrame frame, 
+            RegionSnapshot snapshot, java.sql.Date date, int id, 
+            RegionTotals totals) {
+        // create a calculations class to hold data
+        Calculations calc = new Calculations();
+        // get totals
+        long cases = snapshot.getCases(id);
+        long deaths = snapshot.getDeaths(id);
+        long active = snapshot.getActive(id);
+        long population = frame.getLong(Metric.POPULATION, id);
+        // set location
+        calc.setCountry(frame.getName(id));
+        // set date of data
+        calc.setDate(date);
+        // set population
+        calc.setPopulation(population);
+        // set population rank
+        calc.setPopulationRank(frame.getRank(Metric.POPULATION, id));
+        // set percent of total population
+        calc.setPercentPopulation(calculatePercent(population, 
+                totals.getPopulation()));
+        // set percent of mortality
+        calc.setMortalityRate(calculatePercent(deaths, cases - active));
+        // set percent of total deaths
+        calc.setPercentDeaths(calculatePercent(deaths, totals.getDeaths()));
+        // set percent of total active cases
+        calc.setPercentActive(calculatePercent(active, totals.getActive()));
+        // set percent of recovered cases
+        calc.setPercentRecovered(calculatePercent(cases - active - deaths, 
+                totals.getRecovered()));
+        // set percent of total cases
+        calc.setPercentCases(calculatePercent(cases, totals.getCases()));
+        // set total cases
+        calc.setTotalCases(cases);
+        // set new cases
+        calc.setNewCases(snapshot.getNewCases(id));
+        // set total deaths
+        calc.setTotalDeaths(deaths);
+        // set new deaths
+        calc.setNewDeaths(snapshot.getNewDeaths(id));
+        // set total active cases
+        calc.setTotalActiveCases(active);
+        // set deaths per 100,000 population
+        calc.setDeaths100k(frame.getDouble(Metric.DEATHS100K, id));
+        calc.setDeaths100kRank(frame.getRank(Metric.DEATHS100K, id));
+        calc.setDeaths100kScore(frame.getScore(Metric.DEATHS100K, id));
+        calc.setDeaths100kGrade(ScoreBuckets.getGrade(
+                frame.getScore(Metric.DEATHS100K, id)));
+        // set active cases per 100,000 population
+        calc.setActive100k(frame.getDouble(Metric.ACTIVE100K, id));
+        calc.setActive100kRank(frame.getRank(Metric.ACTIVE100K, id));
+        calc.setActive100kScore(frame.getScore(Metric.ACTIVE100K, id));
+        calc.setActive100kGrade(ScoreBuckets.getGrade(
+                frame.getScore(Metric.ACTIVE100K, id)));
+        // set total cases per 100,000 population
+        calc.setCases100k(frame.getDouble(Metric.CASES100K, id));
+        calc.setCases100kRank(frame.getRank(Metric.CASES100K, id));
+        calc.setCases100kScore(frame.getScore(Metric.CASES100K, id));
+        calc.setCases100kGrade(ScoreBuckets.getGrade(
+                frame.getScore(Metric.CASES100K, id)));
+        // add 15 day average data
+        if (frame.hasDoubles(Metric.CASES100K15)) {
+            calc.setCases100k15(frame.getDouble(Metric.CASES100K15, id));
+            calc.setCases100k15Rank(frame.getRank(Metric.CASES100K15, id));
+            calc.setCases100k15Score(frame.getScore(Metric.CASES100K15, id));
+            calc.setCases100k15Grade(ScoreBuckets.getGrade(
+                    frame.getScore(Metric.CASES100K15, id)));
+            calc.setDeaths100k15(frame.getDouble(Metric.DEATHS100K15, id));
+            calc.setDeaths100k15Rank(frame.getRank(Metric.DEATHS100K15, id));
+            calc.setDeaths100k15Score(frame.getScore(Metric.DEATHS100K15, id));
+            // deaths grade has always been taken from the cases score
+            calc.setDeaths100k15Grade(ScoreBuckets.getGrade(
+                    frame.getScore(Metric.CASES100K15, id)));
+        }
+        // add 30 day average data
+        if (frame.hasDoubles(Metric.CASES100K30)) {
+            calc.setCases100k30(frame.getDouble(Metric.CASES100K30, id));
+            calc.setCases100k30Rank(frame.getRank(Metric.CASES100K30, id));
+            calc.setCases100k30Score(frame.getScore(Metric.CASES100K30, id));
+            calc.setCases100k30Grade(ScoreBuckets.getGrade(
+                    frame.getScore(Metric.CASES100K30, id)));
+            calc.setDeaths100k30(frame.getDouble(Metric.DEATHS100K30, id));
+            calc.setDeaths100k30Rank(frame.getRank(Metric.DEATHS100K30, id));
+            calc.setDeaths100k30Score(frame.getScore(Metric.DEATHS100K30, id));
+            // deaths grade has always been taken from the cases score
+            calc.setDeaths100k30Grade(ScoreBuckets.getGrade(
+                    frame.getScore(Metric.CASES100K30, id)));
+        }
+        // set overall rank
+        calc.setRank(frame.getRank(Metric.OVERALL, id));
+        // set overall score
+        calc.setScore(frame.getScore(Metric.OVERALL, id));
+        // set overall grade
+        calc.setGrade(ScoreBuckets.getGrade(frame.getScore(Metric.OVERALL, id)));
+        return calc;
+    }
+    
+    /**
+     * Method to calculate a percentage with 2 decimal places
+     * @param number1 dividend
+     * @param number2 divisor
+     * @return 
+     */
+    private double calculatePercent(long number1, long number2) {
+        // calculate percentage
+        if (number2 == 0) {
+            return 0.0;
+        }
+        // round to 5 decimal places and return
+        return NumberUtilities.percent(number1, number2);
+    }
+    
+    /**
+     * Method to calculate a percentage with 2 decimal places
+     * @param number1 dividend
+     * @param number2 divisor
+     * @return 
+     */
+    private double calculateAverage(double number, int quantity) {
+        // calculate average
+        if (number == 0 || quantity == 0) {
+            return 0.0;
+        }
+        // round to 5 decimal places and return
+        return NumberUtilities.round5(number / quantity);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Arrays;
+
+/**
+ * Class to hold one date of totals for a set of locations in columns
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class RegionSnapshot {
+    // Declare constant
+    private final int INITIAL_CAPACITY = 256;
+    // Declare member variables
+    private final java.sql.Date date;
+    private final LocationRegistry registry = new LocationRegistry();
+    private long[] cases = new long[INITIAL_CAPACITY];
+    private long[] deaths = new long[INITIAL_CAPACITY];
+    private long[] active = new long[INITIAL_CAPACITY];
+    private long[] population = new long[INITIAL_CAPACITY];
+    private long[] newCases = new long[INITIAL_CAPACITY];
+    private long[] newDeaths = new long[INITIAL_CAPACITY];
+    
+    /**
+     * Default constructor
+     * @param date of the totals
+     */
+    public RegionSnapshot(java.sql.Date date) {
+        this.date = date;
+    }
+    
+    /**
+     * Method to add a location, a repeated location replaces the earlier row
+     * @param name of the location
+     * @param cases total cases
+     * @param deaths total deaths
+     * @param active total active cases
+     * @param population of the location
+     * @param newCases cases for the day
+     * @param newDeaths deaths for the day
+     */
+    public void add(String name, long cases, long deaths, long active, 
+            long population, long newCases, long newDeaths) {
+        int i = registry.register(name);
+        if (i == this.cases.length) {
+            grow();
+        }
+        this.cases[i] = cases;
+        this.deaths[i] = deaths;
+        this.active[i] = active;
+        this.population[i] = population;
+        this.newCases[i] = newCases;
+        this.newDeaths[i] = newDeaths;
+    }
+    
+    /**
+     * Method to double the capacity of the columns
+     */
+    private void grow() {
+        int capacity = cases.length * 2;
+        cases = Arrays.copyOf(cases, capacity);
+        deaths = Arrays.copyOf(deaths, capacity);
+        active = Arrays.copyOf(active, capacity);
+        population = Arrays.copyOf(population, capacity);
+        newCases = Arrays.copyOf(newCases, capacity);
+        newDeaths = Arrays.copyOf(newDeaths, capacity);
+    }
+    
+    /**
+     * Getter for date
+     * @return date of the totals
+     */
+    public java.sql.Date getDate() {
+        return date;
+    }
+    
+    /**
+     * Getter for number of locations
+     * @return number of locations
+     */
+    public int size() {
+        return registry.size();
+    }
+    
+    /**
+     * Method to find the position of a location
+     * @param name of the location
+     * @return position or -1 if not found
+     */
+    public int indexOf(String name) {
+        return registry.getId(name);
+    }
+    
+    /**
+     * Getter for the ids of the locations, a location's position in the 
+     * columns is its id
+     * @return location registry
+     */
+    public LocationRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Getter for name
+     * @param i position of the location
+     * @return name of the location
+     */
+    public String getName(int i) {
+        return registry.getName(i);
+    }
+    
+    /**
+     * Getter for cases
+     * @param i position of the location
+     * @return total cases
+     */
+    public long getCases(int i) {
+        return cases[i];
+    }
+    
+    /**
+     * Getter for deaths
+     * @param i position of the location
+     * @return total deaths
+     */
+    public long getDeaths(int i) {
+        return deaths[i];
+    }
+    
+    /**
+     * Getter for active
+     * @param i position of the location
+     * @return total active cases
+     */
+    public long getActive(int i) {
+        return active[i];
+    }
+    
+    /**
+     * Getter for population
+     * @param i position of the location
+     * @return population
+     */
+    public long getPopulation(int i) {
+        return population[i];
+    }
+    
+    /**
+     * Getter for new cases
+     * @param i position of the location
+     * @return cases for the day
+     */
+    public long getNewCases(int i) {
+        return newCases[i];
+    }
+    
+    /**
+     * Getter for new deaths
+     * @param i position of the location
+     * @return deaths for the day
+     */
+    public long getNewDeaths(int i) {
+        return newDeaths[i];
+    }
+    
+    /**
+     * Getter for cases per 100,000
+     * @param i position of the location
+     * @return cases per 100,000 population
+     */
+    public double getCases100k(int i) {
+        return NumberUtilities.per100k(cases[i], population[i]);
+    }
+    
+    /**
+     * Getter for deaths per 100,000
+     * @param i position of the location
+     * @return deaths per 100,000 population
+     */
+    public double getDeaths100k(int i) {
+        return NumberUtilities.per100k(deaths[i], population[i]);
+    }
+    
+    /**
+     * Getter for active per 100,000
+     * @param i position of the location
+     * @return active cases per 100,000 population
+     */
+    public double getActive100k(int i) {
+        return NumberUtilities.per100k(active[i], population[i]);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface to a level of locations the calculations run for, such as 
+ * countries or states
+ * @author Gary Larson gary@thalic.mobi
+ */
+public interface RegionSource {
+    
+    /**
+     * Method to get the totals of every location of the level for a date
+     * @param conn connection to the database
+     * @param date of the totals
+     * @return snapshot of the totals or null if an error occurs
+     */
+    RegionSnapshot getSnapshot(Connection conn, java.sql.Date date);
+    
+    /**
+     * Method to get the totals of the parent of the level for a date
+     * @param conn connection to the database
+     * @param date of the totals
+     * @return totals of the parent or null if an error occurs
+     */
+    RegionTotals getTotals(Connection conn, java.sql.Date date);
+    
+    /**
+     * Method to get the number of locations of the level and the sums of 
+     * their totals for each date of a range
+     * @param conn connection to the database
+     * @param from first date
+     * @param to last date
+     * @return digests by epoch day or null if an error occurs
+     */
+    Map<Long, long[]> getDigests(Connection conn, java.sql.Date from, 
+            java.sql.Date to);
+    
+    /**
+     * Method to write the calculations of the level for a date
+     * @param conn connection to the database
+     * @param calcs calculations to write
+     * @return RETURN_OK or RETURN_ERROR of DatabaseUtilities
+     */
+    int insertCalculations(Connection conn, List<Calculations> calcs);
+}
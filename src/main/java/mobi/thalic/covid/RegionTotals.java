@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+/**
+ * Interface to the totals of the parent of a set of locations
+ * @author Gary Larson gary@thalic.mobi
+ */
+public interface RegionTotals {
+    
+    /**
+     * Getter for total cases
+     * @return total cases
+     */
+    long getCases();
+    
+    /**
+     * Getter for total deaths
+     * @return total deaths
+     */
+    long getDeaths();
+    
+    /**
+     * Getter for total active cases
+     * @return total active cases
+     */
+    long getActive();
+    
+    /**
+     * Getter for population
+     * @return population
+     */
+    long getPopulation();
+    
+    /**
+     * Getter for recovered cases
+     * @return recovered cases
+     */
+    long getRecovered();
+}
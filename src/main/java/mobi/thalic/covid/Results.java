@@ -42,7 +42,7 @@ public class Results {
      * Getter for string
      * @return string
      */
-    public String getResults () {
+    public synchronized String getResults () {
         return mResults;
     }
     
@@ -50,7 +50,7 @@ public class Results {
      * Method to add an error to the errors
      * @param result to add
      */
-    public void addResults(String result) {
+    public synchronized void addResults(String result) {
         mResults += result + "\n";
     }
 }
@@ -0,0 +1,366 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import mobi.thalic.covid.MetricFrame.Metric;
+
+/**
+ * Class to keep the last days of per 100,000 population values of every 
+ * location in ring buffers, so an average over any window that fits is 
+ * found without reading older totals again
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class RollingWindowStore {
+    // Declare constants
+    public static final int MAX_WINDOW = 90;
+    public static final int DEFAULT_DAYS = MAX_WINDOW + 2;
+    private final int INITIAL_LOCATIONS = 256;
+    private static final int FILE_VERSION = 2;
+    private final long EMPTY_DAY = Long.MIN_VALUE;
+    // Declare member variables
+    private final int capacity;
+    private final LocationRegistry registry = new LocationRegistry();
+    private final long[] slotDays;
+    private final int[] slotCounts;
+    private final long[] slotCases;
+    private final long[] slotDeaths;
+    private final long[] slotPopulation;
+    private final Map<Metric, double[]> values = new EnumMap<>(Metric.class);
+    private int locations = INITIAL_LOCATIONS;
+    
+    /**
+     * Default constructor, keeps enough days for a 90 day window, which 
+     * takes its change from the current date and the date 91 days before
+     */
+    public RollingWindowStore() {
+        this(DEFAULT_DAYS);
+    }
+    
+    /**
+     * Constructor for number of days, a window of n days needs n + 2
+     * @param capacity number of days to keep
+     */
+    public RollingWindowStore(int capacity) {
+        this.capacity = capacity;
+        slotDays = new long[capacity];
+        slotCounts = new int[capacity];
+        slotCases = new long[capacity];
+        slotDeaths = new long[capacity];
+        slotPopulation = new long[capacity];
+        Arrays.fill(slotDays, EMPTY_DAY);
+        values.put(Metric.CASES100K, createValues(locations));
+        values.put(Metric.DEATHS100K, createValues(locations));
+    }
+    
+    /**
+     * Method to add the values of a date, replacing the oldest date when full
+     * @param snapshot of the date
+     */
+    public void add(RegionSnapshot snapshot) {
+        // Declare and initialize variables
+        long day = snapshot.getDate().toLocalDate().toEpochDay();
+        int slot = getSlot(day);
+        double[] cases100k = values.get(Metric.CASES100K);
+        double[] deaths100k = values.get(Metric.DEATHS100K);
+        long cases = 0L, deaths = 0L, population = 0L;
+        // clear the slot of every known location
+        for (int id = 0; id < registry.size(); id++) {
+            cases100k[id * capacity + slot] = Double.NaN;
+            deaths100k[id * capacity + slot] = Double.NaN;
+        }
+        // add each location of the date
+        for (int i = 0; i < snapshot.size(); i++) {
+            int id = registry.register(snapshot.getName(i));
+            if (id == locations) {
+                grow();
+                cases100k = values.get(Metric.CASES100K);
+                deaths100k = values.get(Metric.DEATHS100K);
+            }
+            cases100k[id * capacity + slot] = snapshot.getCases100k(i);
+            deaths100k[id * capacity + slot] = snapshot.getDeaths100k(i);
+            // keep the totals the values came from to check them later
+            cases += snapshot.getCases(i);
+            deaths += snapshot.getDeaths(i);
+            population += snapshot.getPopulation(i);
+        }
+        slotDays[slot] = day;
+        slotCounts[slot] = snapshot.size();
+        slotCases[slot] = cases;
+        slotDeaths[slot] = deaths;
+        slotPopulation[slot] = population;
+    }
+    
+    /**
+     * Method to get the number of days kept
+     * @return number of days
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Method to get the oldest date held
+     * @return oldest date or null if the store is empty
+     */
+    public java.sql.Date getOldestDate() {
+        long oldest = Long.MAX_VALUE;
+        for (long day : slotDays) {
+            if (day != EMPTY_DAY && day < oldest) {
+                oldest = day;
+            }
+        }
+        return oldest == Long.MAX_VALUE ? null : 
+                java.sql.Date.valueOf(LocalDate.ofEpochDay(oldest));
+    }
+    
+    /**
+     * Method to get the newest date held
+     * @return newest date or null if the store is empty
+     */
+    public java.sql.Date getNewestDate() {
+        long newest = getNewestDay();
+        return newest == EMPTY_DAY ? null : 
+                java.sql.Date.valueOf(LocalDate.ofEpochDay(newest));
+    }
+    
+    /**
+     * Method to test if every date held still has the totals it was built 
+     * from, so a store saved before totals were changed is not reused
+     * @param digests of the database by epoch day, each holding the number 
+     * of locations and the sums of cases, deaths and population
+     * @return true if every date held matches its digest
+     */
+    public boolean matches(Map<Long, long[]> digests) {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (slotDays[slot] == EMPTY_DAY) {
+                continue;
+            }
+            long[] digest = digests.get(slotDays[slot]);
+            if (digest == null) {
+                // a date without totals was held empty
+                if (slotCounts[slot] != 0) {
+                    return false;
+                }
+            } else if (digest[0] != slotCounts[slot] || 
+                    digest[1] != slotCases[slot] ||
+                    digest[2] != slotDeaths[slot] || 
+                    digest[3] != slotPopulation[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Method to test if a date is held
+     * @param date to test
+     * @return true if the date is held
+     */
+    public boolean contains(java.sql.Date date) {
+        long day = date.toLocalDate().toEpochDay();
+        return slotDays[getSlot(day)] == day;
+    }
+    
+    /**
+     * Method to test if a date is held and has any locations
+     * @param date to test
+     * @return true if the date has locations
+     */
+    public boolean hasData(java.sql.Date date) {
+        long day = date.toLocalDate().toEpochDay();
+        int slot = getSlot(day);
+        return slotDays[slot] == day && slotCounts[slot] > 0;
+    }
+    
+    /**
+     * Method to get the change of a metric since an earlier date for every 
+     * location of a snapshot
+     * @param snapshot of the current date
+     * @param metric CASES100K or DEATHS100K
+     * @param days back to the earlier date
+     * @return changes indexed by snapshot position or NaN if the location 
+     * has no value on the earlier date, all NaN if either date is not held
+     */
+    public double[] getChanges(RegionSnapshot snapshot, Metric metric, 
+            int days) {
+        // Declare and initialize variables
+        long day = snapshot.getDate().toLocalDate().toEpochDay();
+        int slot = getSlot(day);
+        int oldSlot = getSlot(day - days);
+        double[] series = values.get(metric);
+        double[] changes = new double[snapshot.size()];
+        // both dates must still be in their slots
+        if (slotDays[slot] != day || slotDays[oldSlot] != day - days) {
+            Arrays.fill(changes, Double.NaN);
+            return changes;
+        }
+        // one lookup per location
+        for (int i = 0; i < changes.length; i++) {
+            int row = registry.getId(snapshot.getName(i)) * capacity;
+            changes[i] = series[row + slot] - series[row + oldSlot];
+        }
+        return changes;
+    }
+    
+    /**
+     * Method to save the store to a file so the next run can continue from 
+     * it, the file is replaced only after it is completely written
+     * @param file to save to
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            // write the layout
+            out.writeInt(FILE_VERSION);
+            out.writeInt(capacity);
+            out.writeLong(getNewestDay());
+            out.writeInt(registry.size());
+            // write the locations in id order
+            for (int id = 0; id < registry.size(); id++) {
+                out.writeUTF(registry.getName(id));
+            }
+            // write the days held with the totals they were built from
+            for (int slot = 0; slot < capacity; slot++) {
+                out.writeLong(slotDays[slot]);
+                out.writeInt(slotCounts[slot]);
+                out.writeLong(slotCases[slot]);
+                out.writeLong(slotDeaths[slot]);
+                out.writeLong(slotPopulation[slot]);
+            }
+            // write the values of the locations
+            for (Metric metric : values.keySet()) {
+                double[] series = values.get(metric);
+                for (int i = 0; i < registry.size() * capacity; i++) {
+                    out.writeDouble(series[i]);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Method to load a store saved by an earlier run
+     * @param file to load from
+     * @return store held in the file
+     * @throws IOException if the file cannot be read or is not a store
+     */
+    public static RollingWindowStore load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            // read the layout
+            if (in.readInt() != FILE_VERSION) {
+                throw new IOException("unknown version of " + file);
+            }
+            RollingWindowStore store = new RollingWindowStore(in.readInt());
+            long newest = in.readLong();
+            int size = in.readInt();
+            // read the locations in id order
+            for (int id = 0; id < size; id++) {
+                store.registry.register(in.readUTF());
+            }
+            while (store.locations < size) {
+                store.grow();
+            }
+            // read the days held with the totals they were built from
+            for (int slot = 0; slot < store.capacity; slot++) {
+                store.slotDays[slot] = in.readLong();
+                store.slotCounts[slot] = in.readInt();
+                store.slotCases[slot] = in.readLong();
+                store.slotDeaths[slot] = in.readLong();
+                store.slotPopulation[slot] = in.readLong();
+            }
+            if (store.getNewestDay() != newest) {
+                throw new IOException("days do not match in " + file);
+            }
+            // read the values of the locations
+            for (Metric metric : store.values.keySet()) {
+                double[] series = store.values.get(metric);
+                for (int i = 0; i < size * store.capacity; i++) {
+                    series[i] = in.readDouble();
+                }
+            }
+            return store;
+        }
+    }
+    
+    /**
+     * Method to get the newest day held
+     * @return day since the epoch or EMPTY_DAY if the store is empty
+     */
+    private long getNewestDay() {
+        long newest = EMPTY_DAY;
+        for (long day : slotDays) {
+            newest = Math.max(newest, day);
+        }
+        return newest;
+    }
+    
+    /**
+     * Method to get the slot of a day
+     * @param day since the epoch
+     * @return slot in the ring buffers
+     */
+    private int getSlot(long day) {
+        return (int) Math.floorMod(day, (long) capacity);
+    }
+    
+    /**
+     * Method to double the number of locations in the buffers
+     */
+    private void grow() {
+        int size = locations * 2;
+        for (Map.Entry<Metric, double[]> entry : values.entrySet()) {
+            double[] grown = createValues(size);
+            System.arraycopy(entry.getValue(), 0, grown, 0, 
+                    locations * capacity);
+            entry.setValue(grown);
+        }
+        locations = size;
+    }
+    
+    /**
+     * Method to create empty buffers
+     * @param size number of locations
+     * @return buffers with no values
+     */
+    private double[] createValues(int size) {
+        double[] created = new double[size * capacity];
+        Arrays.fill(created, Double.NaN);
+        return created;
+    }
+}
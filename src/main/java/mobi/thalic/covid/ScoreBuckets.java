@@ -0,0 +1,386 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class to create the 13 score boundaries of a sorted set of values, values
+ * below the mean get 7 boundaries and the rest get 6
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ScoreBuckets {
+    // Declare constants
+    private static final int LOW_BUCKETS = 7;
+    private static final int HIGH_BUCKETS = 6;
+    private static final int LOWEST_SCORE = 13;
+    private static final String ERROR_GRADE = "ER";
+    private static final String[] GRADES = {ERROR_GRADE, "A+", "A", "A-", 
+        "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
+    
+    /**
+     * Method to create the score boundaries
+     * @param values sorted in ascending order
+     * @return boundaries or an empty array if all values are on one side of 
+     * the mean
+     */
+    public static double[] createBoundaries(double[] values) {
+        // calculate mean summing in list order
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        double mean = sum / values.length;
+        // values below the mean are the front of the sorted values
+        int split = lowerBound(values, 0, values.length, mean);
+        if (split == 0 || split == values.length) {
+            return new double[0];
+        }
+        double[] low = fitBoundaries(values, 0, split, LOW_BUCKETS);
+        double[] high = fitBoundaries(values, split, values.length, 
+                HIGH_BUCKETS);
+        // combine boundaries
+        double[] boundaries = Arrays.copyOf(low, low.length + high.length);
+        System.arraycopy(high, 0, boundaries, low.length, high.length);
+        return boundaries;
+    }
+    
+    /**
+     * Method to score values, a value scores the position of the first 
+     * boundary above it counting from 1, or 13 if none is above it
+     * @param boundaries in ascending order
+     * @param values to score
+     * @return score of each value in the same order
+     */
+    public static int[] createScores(double[] boundaries, double[] values) {
+        int[] scores = new int[values.length];
+        boolean ascending = isAscending(boundaries);
+        for (int i = 0; i < values.length; i++) {
+            scores[i] = ascending ? getScore(boundaries, values[i]) 
+                    : getScoreLinear(boundaries, values[i]);
+        }
+        return scores;
+    }
+    
+    /**
+     * Method to get the grade of a score
+     * @param score from 1 to 13
+     * @return grade or ER if the score is out of range
+     */
+    public static String getGrade(int score) {
+        if (score < 1 || score >= GRADES.length) {
+            return ERROR_GRADE;
+        }
+        return GRADES[score];
+    }
+    
+    /**
+     * Method to score one value
+     * @param boundaries in ascending order
+     * @param value to score
+     * @return score
+     */
+    private static int getScore(double[] boundaries, double value) {
+        int index = Arrays.binarySearch(boundaries, value);
+        if (index < 0) {
+            // insertion point is the first boundary above the value
+            index = -index - 1;
+        } else {
+            // skip boundaries equal to the value
+            do {
+                index++;
+            } while (index < boundaries.length && boundaries[index] <= value);
+        }
+        return index < boundaries.length ? index + 1 : LOWEST_SCORE;
+    }
+    
+    /**
+     * Method to score one value by checking every boundary in order, used
+     * when a split leaves the boundaries out of order
+     * @param boundaries to check
+     * @param value to score
+     * @return score
+     */
+    private static int getScoreLinear(double[] boundaries, double value) {
+        for (int i = 0; i < boundaries.length; i++) {
+            if (value < boundaries[i]) {
+                return i + 1;
+            }
+        }
+        return LOWEST_SCORE;
+    }
+    
+    /**
+     * Method to test if boundaries never decrease
+     * @param boundaries to test
+     * @return true if in ascending order
+     */
+    private static boolean isAscending(double[] boundaries) {
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] < boundaries[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Method to create boundaries for a range of values and merge or split 
+     * them until there are the wanted number of buckets
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @param buckets wanted
+     * @return boundaries
+     */
+    private static double[] fitBoundaries(double[] values, int from, int to, 
+            int buckets) {
+        double[] boundaries = getBoundaries(values, from, to);
+        int[] counts = getCounts(values, from, to, boundaries);
+        while (counts.length > buckets) {
+            // adjust boundaries if too many
+            boundaries = combineSmallest(boundaries, counts);
+            counts = getCounts(values, from, to, boundaries);
+        }
+        while (counts.length < buckets) {
+            // adjust boundaries if too few
+            boundaries = splitLargest(boundaries, counts, values, from, to);
+            counts = getCounts(values, from, to, boundaries);
+        }
+        return boundaries;
+    }
+    
+    /**
+     * Method to create boundaries at multiples of the median up to the 
+     * highest value
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @return boundaries
+     */
+    private static double[] getBoundaries(double[] values, int from, int to) {
+        // get the median of the range
+        int size = to - from;
+        double median;
+        if (size % 2 == 0) {
+            median = (values[from + size / 2 - 1] + values[from + size / 2]) 
+                    / 2.0;
+        } else {
+            median = values[from + size / 2];
+        }
+        double last = values[to - 1];
+        // a median of zero or less never reaches the highest value
+        int steps = 0;
+        if (median > 0) {
+            for (double sum = median; sum < last - median; sum += median) {
+                steps++;
+            }
+        }
+        double[] boundaries = new double[steps + 1];
+        double medianSum = median;
+        for (int i = 0; i < steps; i++) {
+            boundaries[i] = medianSum;
+            medianSum += median;
+        }
+        // add the highest plus 0.1 as the last boundary
+        boundaries[steps] = last + 0.1;
+        return boundaries;
+    }
+    
+    /**
+     * Method to count the values in each bucket, a value is in the first 
+     * bucket whose boundary it is below or else in the last bucket
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @param boundaries of the buckets
+     * @return count per bucket
+     */
+    private static int[] getCounts(double[] values, int from, int to, 
+            double[] boundaries) {
+        int[] counts = new int[boundaries.length];
+        if (boundaries.length == 0) {
+            return counts;
+        }
+        // values below the highest boundary seen so far are already counted
+        double highest = boundaries[0];
+        int counted = lowerBound(values, from, to, highest);
+        counts[0] = counted - from;
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] > highest) {
+                int below = lowerBound(values, from, to, boundaries[i]);
+                counts[i] = below - counted;
+                counted = below;
+                highest = boundaries[i];
+            }
+        }
+        // values not below any boundary go in the last bucket
+        counts[boundaries.length - 1] += to - counted;
+        return counts;
+    }
+    
+    /**
+     * Method to remove the boundary between the consecutive buckets with the
+     * smallest total count
+     * @param boundaries of the buckets
+     * @param counts per bucket
+     * @return adjusted boundaries
+     */
+    private static double[] combineSmallest(double[] boundaries, 
+            int[] counts) {
+        // get largest count
+        int count = 0;
+        for (int value : counts) {
+            if (value > count) {
+                count = value;
+            }
+        }
+        // find the first smallest consecutive counts
+        int smallest = count * 2;
+        int target = 0;
+        for (int i = 0; i < counts.length - 1; i++) {
+            if (counts[i] + counts[i + 1] < smallest) {
+                smallest = counts[i] + counts[i + 1];
+                target = i;
+            }
+        }
+        // remove target boundary
+        double[] combined = new double[boundaries.length - 1];
+        System.arraycopy(boundaries, 0, combined, 0, target);
+        System.arraycopy(boundaries, target + 1, combined, target, 
+                boundaries.length - target - 1);
+        return combined;
+    }
+    
+    /**
+     * Method to add a boundary in the middle of the bucket with the largest
+     * count
+     * @param boundaries of the buckets
+     * @param counts per bucket
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @return adjusted boundaries
+     */
+    private static double[] splitLargest(double[] boundaries, int[] counts, 
+            double[] values, int from, int to) {
+        // find the first bucket with the most values
+        int largest = 0;
+        double current = 0;
+        double low = 0.0;
+        double high = 0.0;
+        for (int i = 0; i < boundaries.length; i++) {
+            if (counts[i] > largest) {
+                largest = counts[i];
+                low = current;
+                high = boundaries[i];
+            }
+            current = boundaries[i];
+        }
+        // a previous boundary of zero is split as the first bucket
+        double[] split = new double[boundaries.length * 2];
+        int size = 0;
+        for (int i = 0; i < boundaries.length; i++) {
+            if (boundaries[i] == low || low == 0) {
+                if (low > 0) {
+                    // keep the low boundary and split above it
+                    split[size++] = low;
+                    split[size++] = getMiddle(values, 
+                            upperBound(values, from, to, low), 
+                            lowerBound(values, from, to, high));
+                } else {
+                    // split from zero and keep the high boundary
+                    split[size++] = getMiddle(values, 
+                            lowerBound(values, from, to, low), 
+                            lowerBound(values, from, to, high));
+                    split[size++] = high;
+                    // prevent from repeating this option
+                    low = -1;
+                }
+            } else {
+                // keep original boundary
+                split[size++] = boundaries[i];
+            }
+        }
+        return Arrays.copyOf(split, size);
+    }
+    
+    /**
+     * Method to get the value halfway between the lowest and highest of a
+     * sorted range
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @return middle value
+     */
+    private static double getMiddle(double[] values, int from, int to) {
+        if (from >= to) {
+            throw new NoSuchElementException("No values to split");
+        }
+        return (values[from] + values[to - 1]) / 2;
+    }
+    
+    /**
+     * Method to find the first value not below a key
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @param key to search for
+     * @return index of the first value not below the key
+     */
+    private static int lowerBound(double[] values, int from, int to, 
+            double key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] < key) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+    
+    /**
+     * Method to find the first value above a key
+     * @param values sorted in ascending order
+     * @param from first index of the range
+     * @param to index after the range
+     * @param key to search for
+     * @return index of the first value above the key
+     */
+    private static int upperBound(double[] values, int from, int to, 
+            double key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (values[middle] > key) {
+                to = middle;
+            } else {
+                from = middle + 1;
+            }
+        }
+        return from;
+    }
+}
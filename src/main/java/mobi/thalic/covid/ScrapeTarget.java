@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class to describe a page to scrape, the table to take from it and the 
+ * columns to keep as name, total cases, total deaths, active cases and 
+ * population
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ScrapeTarget {
+    // Declare member variables
+    private final String name;
+    private final String url;
+    private final TableSelector selector;
+    private final int[] columns;
+    private final int skipColumn;
+    private final Set<String> skipValues;
+    
+    /**
+     * Constructor for all variables
+     * @param name of the target
+     * @param url of the page
+     * @param selector of the table on the page
+     * @param columns of the table to keep, in order
+     * @param skipColumn column tested to skip a row
+     * @param skipValues values of the skip column that skip a row
+     */
+    public ScrapeTarget(String name, String url, TableSelector selector, 
+            int[] columns, int skipColumn, String... skipValues) {
+        this.name = name;
+        this.url = url;
+        this.selector = selector;
+        this.columns = columns.clone();
+        this.skipColumn = skipColumn;
+        this.skipValues = new HashSet<>(Arrays.asList(skipValues));
+    }
+    
+    /**
+     * Method to keep only the wanted rows and columns of a scraped table
+     * @param lists scraped table with heading
+     * @return new lists with the mapped columns
+     */
+    public List<List<String>> mapRows(List<List<String>> lists) {
+        // Declare variables
+        List<List<String>> newLists = new ArrayList<>(lists.size());
+        // loop through lists putting only what is required in new lists
+        for (List<String> list : lists) {
+            // eliminate untitled or total rows
+            if (skipValues.contains(list.get(skipColumn))) {
+                continue;
+            }
+            List<String> strings = new ArrayList<>(columns.length + 1);
+            for (int column : columns) {
+                strings.add(list.get(column));
+            }
+            // add new list to new lists
+            newLists.add(strings);
+        }
+        return newLists;
+    }
+    
+    /**
+     * Getter for name
+     * @return name of the target
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Getter for url
+     * @return url of the page
+     */
+    public String getUrl() {
+        return url;
+    }
+    
+    /**
+     * Getter for selector
+     * @return selector of the table
+     */
+    public TableSelector getSelector() {
+        return selector;
+    }
+}
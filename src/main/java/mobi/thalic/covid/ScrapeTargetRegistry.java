@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Class to hold the pages to scrape and fetch them concurrently
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ScrapeTargetRegistry {
+    // Declare constants
+    public static final String UNITED_STATES = "UnitedStates";
+    public static final String WORLD = "World";
+    // Declare member variables
+    private final Map<String, ScrapeTarget> targets = new LinkedHashMap<>();
+    
+    /**
+     * Method to create the registry of the worldometers pages
+     * @return registry with the United States and world targets
+     */
+    public static ScrapeTargetRegistry createDefault() {
+        // Declare variables
+        ScrapeTargetRegistry registry = new ScrapeTargetRegistry();
+        TableSelector yesterday = TableSelector.byHtml("yesterday", 
+                "yesterday2");
+        // state, total cases, total deaths, active cases, population
+        registry.register(new ScrapeTarget(UNITED_STATES, 
+                "https://www.worldometers.info/coronavirus/country/us/", 
+                yesterday, new int[] {1, 2, 4, 7, 12}, 0, "Total:"));
+        // country, total cases, total deaths, active cases, population
+        registry.register(new ScrapeTarget(WORLD, 
+                "https://www.worldometers.info/coronavirus/", 
+                yesterday, new int[] {1, 2, 4, 8, 14}, 1, "", "Total:"));
+        return registry;
+    }
+    
+    /**
+     * Method to add or replace a target
+     * @param target to add
+     */
+    public void register(ScrapeTarget target) {
+        targets.put(target.getName(), target);
+    }
+    
+    /**
+     * Method to get a target by name
+     * @param name of the target
+     * @return target or null if not registered
+     */
+    public ScrapeTarget get(String name) {
+        return targets.get(name);
+    }
+    
+    /**
+     * Method to get all targets in registration order
+     * @return list of targets
+     */
+    public List<ScrapeTarget> getTargets() {
+        return new ArrayList<>(targets.values());
+    }
+    
+    /**
+     * Method to fetch the tables of all targets at the same time, so the 
+     * wait is bounded by the slowest page instead of the sum of all pages
+     * @param scrapeUtilities to fetch and extract with
+     * @param timeoutMillis for each page
+     * @param results to report errors to
+     * @return tables by target name, null for targets that failed
+     */
+    public Map<String, List<List<String>>> fetchAll(
+            ScrapeUtilities scrapeUtilities, int timeoutMillis, 
+            Results results) {
+        // Declare variables
+        Map<String, Future<List<List<String>>>> futures = 
+                new LinkedHashMap<>();
+        Map<String, List<List<String>>> tables = new LinkedHashMap<>();
+        if (targets.isEmpty()) {
+            return tables;
+        }
+        ExecutorService executor = 
+                Executors.newFixedThreadPool(targets.size());
+        // start every fetch
+        for (ScrapeTarget target : targets.values()) {
+            futures.put(target.getName(), executor.submit(() -> 
+                    scrapeUtilities.getTableData(target.getUrl(), 
+                            target.getSelector(), timeoutMillis)));
+        }
+        executor.shutdown();
+        // all fetches share the same deadline, with a second of grace for 
+        // the extraction after the read timeout
+        long deadline = System.nanoTime() + 
+                TimeUnit.MILLISECONDS.toNanos(timeoutMillis + 1000L);
+        try {
+            for (Map.Entry<String, Future<List<List<String>>>> entry : 
+                    futures.entrySet()) {
+                List<List<String>> table = null;
+                try {
+                    table = entry.getValue().get(Math.max(
+                            deadline - System.nanoTime(), 0L), 
+                            TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    results.addResults("fetchAll " + entry.getKey() + " " + 
+                            e.getCause());
+                } catch (TimeoutException e) {
+                    entry.getValue().cancel(true);
+                    results.addResults("fetchAll " + entry.getKey() + 
+                            " timed out after " + timeoutMillis + " ms");
+                }
+                tables.put(entry.getKey(), table);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            results.addResults("fetchAll interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+        return tables;
+    }
+}
@@ -24,16 +24,40 @@
 package mobi.thalic.covid;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
 /**
  * Class to deal with website scraping using JSOUP library
  * @author GaryL
  */
 public class ScrapeUtilities {
+    // Declare constants
+    public static final TableSelector DEFAULT_SELECTOR = 
+            new TableSelector("yesterday", "yesterday2", 
+                    "United States House of Representatives");
+    // Declare member variables
+    private final FeedSource mSource;
+    
+    /**
+     * Default constructor fetching pages directly with jsoup
+     */
+    public ScrapeUtilities() {
+        this(null);
+    }
+    
+    /**
+     * Constructor reading pages from a feed source
+     * @param source of the pages or null to fetch them directly with jsoup
+     */
+    public ScrapeUtilities(FeedSource source) {
+        mSource = source;
+    }
+    
     /**
      * Method to retrieve table data from websites
      * @param url of the website to get table from
@@ -41,122 +65,141 @@ public class ScrapeUtilities {
      */
     public List<List<String>> getTableData(String url) {
         // Declare variables
-        String htmlString = null;
+        Document doc;
         // attempt to connect to the website and get the html
         try {
-            Document doc = Jsoup.connect(url).get();
-            // convert html to a string
-            htmlString = doc.toString();
+            doc = mSource == null ? Jsoup.connect(url).get() : parse(url);
         } catch (IOException e) {
             System.out.println("An error occurred. jsoup: " + e);
+            return null;
         }
-
+        // extract table from the parsed page
+        return getTableData(doc);
+    }
+    
+    /**
+     * Method to retrieve table data from websites with a time limit
+     * @param url of the website to get table from
+     * @param selector of the table on the page
+     * @param timeoutMillis for connecting and reading the page
+     * @return a list of string lists or null if no table was found
+     * @throws IOException if the page could not be read in time
+     */
+    public List<List<String>> getTableData(String url, TableSelector selector,
+            int timeoutMillis) throws IOException {
+        // get the html and extract table from the parsed page
+        return getTableData(mSource == null ? 
+                Jsoup.connect(url).timeout(timeoutMillis).get() : parse(url), 
+                selector);
+    }
+    
+    /**
+     * Method to parse a page read from the feed source
+     * @param url of the page
+     * @return parsed page
+     * @throws IOException if the page can not be read
+     */
+    private Document parse(String url) throws IOException {
+        try (InputStream in = mSource.open(url)) {
+            return Jsoup.parse(in, null, url);
+        }
+    }
+    
+    /**
+     * Method to retrieve table data from an already parsed page
+     * @param doc parsed page to get table from
+     * @return a list of string lists or null if no table was found
+     */
+    public List<List<String>> getTableData(Document doc) {
+        return getTableData(doc, DEFAULT_SELECTOR);
+    }
+    
+    /**
+     * Method to retrieve the selected table from an already parsed page
+     * @param doc parsed page to get table from
+     * @param selector of the table on the page
+     * @return a list of string lists or null if no table was found
+     */
+    public List<List<String>> getTableData(Document doc, 
+            TableSelector selector) {
         // if no html return nothing
-        if (htmlString == null) {
+        if (doc == null) {
             return null;
         }
-        // declare and initialize variables
-        String tableString = null;
-        int position = 0;
-        // loop through html looking for tables
-        do {
-            int rowStart = htmlString.indexOf("<table", position);
-            int rowEnd = htmlString.indexOf("</table>", rowStart);
-            String htmlTableString = htmlString.substring(rowStart, rowEnd);
-            // only add table if it is what we are looking for
-            if (htmlTableString.contains("yesterday")) {
-                if (!htmlTableString.contains("yesterday2")) {
-                    tableString = htmlTableString;
-                }
-            }
-            // test for state population table 
-            // and break after locating the first one
-            if (htmlTableString
-                    .contains("United States House of Representatives")) {
-                tableString = htmlTableString;
-                break;
-            }
-            position = rowEnd;
-            // test if there are more tables
-        } while (htmlString.indexOf("<table", position) > -1);
+        // look for the wanted table
+        Element table = selector.select(doc);
         // if no table found return nothing
-        if (tableString == null) {
+        if (table == null) {
             return null;
         } else {
-            // call extract table from html and return list of list of strings
-            return extractTable(tableString);
+            // call extract table and return list of list of strings
+            return extractTable(table);
         }
     }
 
     /**
-     * Method to convert an HTML string of a table 
-     * into a list of list of strings
-     * @param tableString to convert
+     * Method to convert a table element into a list of list of strings
+     * @param table to convert
      * @return converted list of list of strings
      */
-    private List<List<String>> extractTable(String tableString) {
+    private List<List<String>> extractTable(Element table) {
         // Declare variables
-        List<List<String>> rowList;
-        // look for heading of table
-        int headingStart = tableString.indexOf("<thead>");
-        int headingEnd = tableString.indexOf("</thead>");
+        List<Element> headingRows = new ArrayList<>();
+        List<Element> dataRows = new ArrayList<>();
+        // sort the rows of this table (not of nested tables) in one pass
+        for (Element section : table.children()) {
+            switch (section.tagName()) {
+                case "thead":
+                    headingRows.addAll(childrenByTag(section, "tr"));
+                    break;
+                case "tbody":
+                case "tfoot":
+                    dataRows.addAll(childrenByTag(section, "tr"));
+                    break;
+                case "tr":
+                    dataRows.add(section);
+                    break;
+                default:
+                    break;
+            }
+        }
         // if no standard heading take the first row
-        if (headingEnd == -1 || headingStart == -1) {
-            headingStart = tableString.indexOf("<tr>");
-            headingEnd = tableString.indexOf("</tr>", headingStart);
+        if (headingRows.isEmpty() && !dataRows.isEmpty()) {
+            headingRows.add(dataRows.remove(0));
         }
         // convert heading into a list of strings
-        List<String> headingList = extractTableHeading(tableString
-                .substring(headingStart, headingEnd));
+        List<String> headingList = extractTableHeading(headingRows);
         // initialize the list of list of strings
-        rowList = new ArrayList<>();
+        List<List<String>> rowList = new ArrayList<>(dataRows.size() + 1);
         // add the heading as the first list of strings
         rowList.add(headingList);
-        // set current position in html
-        int position = headingEnd;
         // loop through the remaining rows in table (the data)
-        do {
-            // extract the next row
-            int rowStart = tableString.indexOf("<tr", position);
-            int rowEnd = tableString.indexOf("</tr>", rowStart);
-            // convert html row into a list of strings
-            rowList.add(extractTableRow(tableString
-                    .substring(rowStart, rowEnd), headingList.size()));
-            // update position in html string
-            position = rowEnd;
-            // test for another row
-        } while (tableString.indexOf("<tr", position) > -1);
+        for (Element row : dataRows) {
+            // convert row into a list of strings
+            rowList.add(extractTableRow(row, headingList.size()));
+        }
         return rowList;
     }
 
     /**
-     * Method to convert HTML string to a list of strings
-     * @param headingString to convert
+     * Method to convert heading rows to a list of strings
+     * @param headingRows to convert
      * @return list of strings
      */
-    private List<String> extractTableHeading(String headingString) {
+    private List<String> extractTableHeading(List<Element> headingRows) {
         // Declare variables
         List<String> headingList = new ArrayList<>();
-        int position = 1;
-        // loop through html and extract each heading into a string
-        do {
-            // get positions of headings
-            int headingStart = headingString.indexOf("<th", position);
-            headingStart = headingString.indexOf('>', headingStart + 1);
-            headingStart++;
-            int headingEnd = headingString.indexOf("</th>", headingStart);
-            // extract string of heading with html
-            String heading = headingString.substring(headingStart, headingEnd);
-            // remove html from string
-            heading = htmlToText(heading);
-            // ignore unwanted columns
-            if (!(heading.equals("Source") || heading.equals("Projections"))) {
-                headingList.add(heading);
+        // loop through rows and extract each heading into a string
+        for (Element row : headingRows) {
+            for (Element cell : childrenByTag(row, "th")) {
+                String heading = cell.text();
+                // ignore unwanted columns
+                if (!(heading.equals("Source") || 
+                        heading.equals("Projections"))) {
+                    headingList.add(heading);
+                }
             }
-            // update position in html string
-            position = headingEnd;
-            // test for another heading
-        } while (headingString.indexOf("<th", position) > -1);
+        }
         return headingList;
     }
 
@@ -164,30 +207,44 @@ public class ScrapeUtilities {
      * Method to convert table row to list of strings
      * @param row to convert
      * @param size number of entries to get
-     * @return list of stings
+     * @return list of stings, padded with empty strings for short rows
      */
-    private List<String> extractTableRow(String row, int size) {
+    private List<String> extractTableRow(Element row, int size) {
         // Declare variables
-        List<String> rowData = new ArrayList<>();
-        int position = 1;
-        // loop through the html code up to the number of headings passed in
-        for (int i = 0; i < size; i++) {
-            // get element start and end positions
-            int rowStart = row.indexOf("<td", position);
-            rowStart = row.indexOf('>', rowStart + 1);
-            rowStart++;
-            int rowEnd = row.indexOf("</td>", rowStart);
-            // get html string of entry
-            String rowString = row.substring(rowStart, rowEnd);
-            // remove html from string
-            rowString = htmlToText(rowString);
-            // add string to list of strings
-            rowData.add(rowString);
-            // update position
-            position = rowEnd;
+        List<String> rowData = new ArrayList<>(size);
+        // loop through the cells up to the number of headings passed in
+        for (Element cell : row.children()) {
+            if (rowData.size() == size) {
+                break;
+            }
+            if (cell.tagName().equals("td")) {
+                // add text of cell to list of strings
+                rowData.add(cell.text());
+            }
+        }
+        // keep every row as wide as the heading
+        while (rowData.size() < size) {
+            rowData.add("");
         }
         return rowData;
     }
+    
+    /**
+     * Method to get the direct children of an element with a tag
+     * @param parent element to get children of
+     * @param tag name of the children to get
+     * @return list of child elements
+     */
+    private List<Element> childrenByTag(Element parent, String tag) {
+        // Declare variables
+        List<Element> children = new ArrayList<>();
+        for (Element child : parent.children()) {
+            if (child.tagName().equals(tag)) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
 
     /**
      * Method to remove HTML from a string
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Class to pick the table to scrape from a page, either by a part of the 
+ * table html or by a marker text inside the table html, the same way the 
+ * html of the page was searched before it was parsed
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class TableSelector {
+    // Declare member variables
+    private final String htmlContains;
+    private final String htmlExcludes;
+    private final String markerContains;
+    
+    /**
+     * Constructor for all variables, null values are not tested
+     * @param htmlContains part of the html the table must have, the last 
+     * table with it is selected
+     * @param htmlExcludes part of the html the table must not have
+     * @param markerContains text that selects the first table with it in 
+     * its html
+     */
+    public TableSelector(String htmlContains, String htmlExcludes, 
+            String markerContains) {
+        this.htmlContains = htmlContains;
+        this.htmlExcludes = htmlExcludes;
+        this.markerContains = markerContains;
+    }
+    
+    /**
+     * Method to create a selector on a part of the table html, such as the 
+     * table id
+     * @param htmlContains part of the html the table must have
+     * @param htmlExcludes part of the html the table must not have
+     * @return selector
+     */
+    public static TableSelector byHtml(String htmlContains, 
+            String htmlExcludes) {
+        return new TableSelector(htmlContains, htmlExcludes, null);
+    }
+    
+    /**
+     * Method to create a selector on a marker text
+     * @param markerContains text that selects the first table with it in 
+     * its html
+     * @return selector
+     */
+    public static TableSelector byMarker(String markerContains) {
+        return new TableSelector(null, null, markerContains);
+    }
+    
+    /**
+     * Method to find the table of a page
+     * @param doc parsed page to search
+     * @return table element or null if none is found
+     */
+    public Element select(Document doc) {
+        // Declare variables
+        Element found = null;
+        // loop through tables of the page
+        for (Element table : doc.getElementsByTag("table")) {
+            // the whole table is searched, not only its id
+            String html = table.outerHtml();
+            // only keep table if it is what we are looking for
+            if (htmlContains != null && html.contains(htmlContains) && 
+                    (htmlExcludes == null || !html.contains(htmlExcludes))) {
+                found = table;
+            }
+            // stop at the first table with the marker text
+            if (markerContains != null && html.contains(markerContains)) {
+                return table;
+            }
+        }
+        return found;
+    }
+}
@@ -27,7 +27,7 @@ package mobi.thalic.covid;
  *
  * @author Gary Larson gary@thalic.mobi
  */
-public class USAData {
+public class USAData implements RegionTotals {
     private long cases;
     private long deaths;
     private long active;
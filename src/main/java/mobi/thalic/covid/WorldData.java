@@ -27,7 +27,7 @@ package mobi.thalic.covid;
  * Class to deal with world data for calculating front end data
  * @author Gary Larson gary@thalic.mobi
  */
-public class WorldData {
+public class WorldData implements RegionTotals {
     private long cases;
     private long deaths;
     private long active;
@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests of the RFC 4180 csv reading of the memory mapped reader and the 
+ * field access of its rows
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class CSVStreamReaderTest {
+    // Declare member variable
+    private Path file;
+    
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("csv", ".csv");
+    }
+    
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    /**
+     * Method to read a csv text into lists of fields
+     * @param bytes of the csv file
+     * @param window number of bytes mapped at a time
+     * @return fields of every row
+     * @throws IOException if the file can not be read
+     */
+    private List<List<String>> read(byte[] bytes, long window) 
+            throws IOException {
+        Files.write(file, bytes);
+        List<List<String>> rows = new ArrayList<>();
+        long count = new CSVStreamReader(window).read(file, row -> {
+            assertEquals(rows.size(), row.getRowNumber());
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < row.size(); i++) {
+                fields.add(row.getString(i));
+            }
+            rows.add(fields);
+        });
+        assertEquals(rows.size(), count);
+        return rows;
+    }
+    
+    /**
+     * Method to read a csv text into lists of fields
+     * @param text of the csv file
+     * @return fields of every row
+     * @throws IOException if the file can not be read
+     */
+    private List<List<String>> read(String text) throws IOException {
+        return read(text.getBytes(StandardCharsets.UTF_8), 1L << 20);
+    }
+    
+    @Test
+    public void keepsCommaInQuotedField() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "b,c", "d")), 
+                read("a,\"b,c\",d\n"));
+    }
+    
+    @Test
+    public void readsDoubledQuoteAsQuote() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("say \"hi\"", "x")), 
+                read("\"say \"\"hi\"\"\",x\n"));
+    }
+    
+    @Test
+    public void keepsLineBreakInQuotedField() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "line1\nline2"), 
+                Arrays.asList("b", "c")), 
+                read("a,\"line1\nline2\"\nb,c\n"));
+    }
+    
+    @Test
+    public void keepsTrailingEmptyField() throws IOException {
+        List<List<String>> rows = read("a,b,\nc,,\n");
+        assertEquals(Arrays.asList("a", "b", ""), rows.get(0));
+        assertEquals(Arrays.asList("c", "", ""), rows.get(1));
+    }
+    
+    @Test
+    public void skipsByteOrderMark() throws IOException {
+        byte[] text = "iso_code,date\nFRA,2021-03-01\n".getBytes(
+                StandardCharsets.UTF_8);
+        byte[] bytes = new byte[text.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, bytes, 3, text.length);
+        List<List<String>> rows = read(bytes, 1L << 20);
+        assertEquals(Arrays.asList("iso_code", "date"), rows.get(0));
+    }
+    
+    @Test
+    public void readsCrLfLinesAndLastLineWithoutBreak() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), 
+                Arrays.asList("c", "d"), Arrays.asList("e", "f")), 
+                read("a,b\r\nc,d\r\n\r\ne,f"));
+    }
+    
+    @Test
+    public void readsRowsCrossingMappingWindows() throws IOException {
+        String text = "iso_code,location,total_cases\n"
+                + "FRA,\"France, \"\"metropolitan\"\"\",1000\r\n"
+                + "ESP,\"Spain\nmainland\",2000\n";
+        List<List<String>> expected = read(text);
+        // every window size puts a boundary inside a field or a quote
+        for (long window = 1; window < 12; window++) {
+            assertEquals("window " + window, expected, read(
+                    text.getBytes(StandardCharsets.UTF_8), window));
+        }
+        assertEquals(Arrays.asList("FRA", "France, \"metropolitan\"", 
+                "1000"), expected.get(1));
+    }
+    
+    @Test
+    public void readsLongFromDecimalAndExponent() throws IOException {
+        Files.write(file, "12,12.75,-3.5,1.5e3,2E2,,+7\n".getBytes(
+                StandardCharsets.UTF_8));
+        List<long[]> values = new ArrayList<>();
+        new CSVStreamReader().read(file, row -> {
+            long[] longs = new long[row.size()];
+            for (int i = 0; i < row.size(); i++) {
+                longs[i] = row.getLong(i, -1L);
+            }
+            values.add(longs);
+            assertTrue(row.isEmpty(5));
+            assertEquals(1500.0, row.getDouble(3, 0.0), 0.0);
+            assertTrue(row.matches(0, "12"));
+        });
+        assertEquals(Arrays.toString(new long[] {12, 12, -3, 1500, 200, -1, 
+            7}), Arrays.toString(values.get(0)));
+    }
+}
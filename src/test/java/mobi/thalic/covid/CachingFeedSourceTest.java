@@ -0,0 +1,234 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests of the on-disk feed cache against a local http server standing in
+ * for the feed servers
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class CachingFeedSourceTest {
+    // Declare constants
+    private static final String LAST_MODIFIED = 
+            "Mon, 01 Mar 2021 10:00:00 GMT";
+    private static final String BODY = "[{\"country\":\"France\"}]";
+    // Declare member variables
+    private HttpServer server;
+    private Path directory;
+    private String etag = "\"v1\"";
+    private String body = BODY;
+    private final List<Integer> codes = new ArrayList<>();
+    private final List<String> ifNoneMatch = new ArrayList<>();
+    
+    @Before
+    public void startServer() throws IOException {
+        directory = Files.createTempDirectory("cache");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed", this::handleFeed);
+        server.createContext("/gzip", this::handleGzip);
+        server.createContext("/missing", exchange -> 
+                send(exchange, 404, new byte[0]));
+        server.start();
+    }
+    
+    @After
+    public void stopServer() throws IOException {
+        server.stop(0);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> 
+                    path.toFile().delete());
+        }
+    }
+    
+    /**
+     * Method to answer the feed with its validators, or 304 when the 
+     * client already has the current version
+     * @param exchange of the request
+     * @throws IOException if the answer can not be sent
+     */
+    private void handleFeed(HttpExchange exchange) throws IOException {
+        String match = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatch.add(match);
+        if (etag.equals(match)) {
+            send(exchange, 304, null);
+            return;
+        }
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+        send(exchange, 200, body.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Method to answer the feed gzipped when the client accepts it
+     * @param exchange of the request
+     * @throws IOException if the answer can not be sent
+     */
+    private void handleGzip(HttpExchange exchange) throws IOException {
+        if (!"gzip".equals(exchange.getRequestHeaders()
+                .getFirst("Accept-Encoding"))) {
+            send(exchange, 406, null);
+            return;
+        }
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(zipped)) {
+            out.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        send(exchange, 200, zipped.toByteArray());
+    }
+    
+    /**
+     * Method to send an answer and note its status code
+     * @param exchange of the request
+     * @param code status code
+     * @param content to send or null for none
+     * @throws IOException if the answer can not be sent
+     */
+    private void send(HttpExchange exchange, int code, byte[] content) 
+            throws IOException {
+        codes.add(code);
+        exchange.sendResponseHeaders(code, content == null ? -1 : 
+                content.length == 0 ? -1 : content.length);
+        if (content != null && content.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        }
+        exchange.close();
+    }
+    
+    /**
+     * Method to get the url of a path on the local server
+     * @param path on the server
+     * @return url
+     */
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+    
+    /**
+     * Method to read all of a stream as text
+     * @param in stream to read and close
+     * @return text of the stream
+     * @throws IOException if the stream can not be read
+     */
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    @Test
+    public void storesBodyAndValidatorsOnOk() throws IOException {
+        CachingFeedSource source = new CachingFeedSource(directory, 5000);
+        assertEquals(BODY, read(source.open(url("/feed"))));
+        assertEquals(200, (int) codes.get(0));
+        Path file = FixtureFeedSource.getFixture(directory, url("/feed"));
+        assertEquals(BODY, new String(Files.readAllBytes(file), 
+                StandardCharsets.UTF_8));
+        String meta = new String(Files.readAllBytes(file.resolveSibling(
+                file.getFileName() + ".meta")), StandardCharsets.ISO_8859_1);
+        assertTrue(meta.contains("etag=\"v1\""));
+        assertTrue(meta.contains("lastModified=" + 
+                LAST_MODIFIED.replace(":", "\\:")));
+    }
+    
+    @Test
+    public void servesCacheOnNotModified() throws IOException {
+        CachingFeedSource source = new CachingFeedSource(directory, 5000);
+        read(source.open(url("/feed")));
+        assertEquals(BODY, read(source.open(url("/feed"))));
+        // the second request carried the saved ETag and got no body
+        assertNull(ifNoneMatch.get(0));
+        assertEquals("\"v1\"", ifNoneMatch.get(1));
+        assertEquals(304, (int) codes.get(1));
+    }
+    
+    @Test
+    public void unzipsGzipResponses() throws IOException {
+        CachingFeedSource source = new CachingFeedSource(directory, 5000);
+        assertEquals(BODY, read(source.open(url("/gzip"))));
+        assertEquals(BODY, new String(Files.readAllBytes(
+                FixtureFeedSource.getFixture(directory, url("/gzip"))), 
+                StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void marksEachProcessorSeparately() throws IOException {
+        CachingFeedSource source = new CachingFeedSource(directory, 5000);
+        String feed = url("/feed");
+        read(source.open(feed));
+        // new content is never unchanged
+        assertFalse(source.isUnchanged(feed, "owid"));
+        source.markProcessed(feed, "owid");
+        // the same content again is unchanged only for the processor that
+        // marked it
+        read(source.open(feed));
+        assertTrue(source.isUnchanged(feed, "owid"));
+        assertFalse(source.isUnchanged(feed, "stat"));
+        assertFalse(source.isUnchanged(feed, null));
+        // a new version clears the marks
+        etag = "\"v2\"";
+        body = "[]";
+        assertEquals("[]", read(source.open(feed)));
+        assertFalse(source.isUnchanged(feed, "owid"));
+        read(source.open(feed));
+        assertFalse(source.isUnchanged(feed, "owid"));
+    }
+    
+    @Test
+    public void failsOnOtherStatus() throws IOException {
+        CachingFeedSource source = new CachingFeedSource(directory, 5000);
+        try {
+            source.open(url("/missing"));
+            fail("404 should fail");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("404"));
+        }
+    }
+}
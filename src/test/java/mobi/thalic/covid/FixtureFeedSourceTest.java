@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests of recording feeds into fixture files and replaying them without
+ * a network
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class FixtureFeedSourceTest {
+    // Declare constants
+    private static final String URL = 
+            "https://www.worldometers.info/coronavirus/country/us/";
+    private static final String PAGE = "<html><body>"
+            + "<table id=\"usa_table_countries_yesterday\">"
+            + "<thead><tr><th>State</th><th>Cases</th></tr></thead>"
+            + "<tbody><tr><td>Ohio</td><td>5</td></tr></tbody></table>"
+            + "</body></html>";
+    // Declare member variable
+    private Path directory;
+    
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("fixtures");
+    }
+    
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> 
+                    path.toFile().delete());
+        }
+    }
+    
+    /**
+     * Method to read all of a stream as text
+     * @param in stream to read and close
+     * @return text of the stream
+     * @throws IOException if the stream can not be read
+     */
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    @Test
+    public void namesFixtureAfterUrlWithoutScheme() {
+        assertEquals(Paths.get("fixtures", 
+                "www.worldometers.info_coronavirus_country_us_"), 
+                FixtureFeedSource.getFixture(Paths.get("fixtures"), URL));
+        assertEquals(Paths.get("fixtures", 
+                "covid.ourworldindata.org_data_owid-covid-data.json"), 
+                FixtureFeedSource.getFixture(Paths.get("fixtures"), 
+                "https://covid.ourworldindata.org/data/owid-covid-data.json"));
+        assertEquals(Paths.get("fixtures", "host_feed_date_2021-03-01_a_b"), 
+                FixtureFeedSource.getFixture(Paths.get("fixtures"), 
+                "http://host/feed?date=2021-03-01&a b"));
+    }
+    
+    @Test
+    public void replaysWhatWasRecorded() throws IOException {
+        // stub source standing in for the internet
+        List<String> opened = new ArrayList<>();
+        FeedSource stub = url -> {
+            opened.add(url);
+            return new ByteArrayInputStream(
+                    PAGE.getBytes(StandardCharsets.UTF_8));
+        };
+        // recording hands the content on and keeps a copy
+        assertEquals(PAGE, read(new RecordingFeedSource(stub, directory)
+                .open(URL)));
+        assertEquals(1, opened.size());
+        assertTrue(Files.isRegularFile(
+                FixtureFeedSource.getFixture(directory, URL)));
+        // replaying reads the copy without the stub
+        FeedSource replay = new FixtureFeedSource(directory);
+        assertEquals(PAGE, read(replay.open(URL)));
+        assertEquals(1, opened.size());
+        // the replayed page is scraped like the live one
+        List<List<String>> rows = new ScrapeUtilities(replay).getTableData(
+                URL, ScrapeUtilities.DEFAULT_SELECTOR, 1000);
+        assertEquals("Ohio", rows.get(1).get(0));
+    }
+    
+    @Test
+    public void keepsOldFixtureWhenRecordingFails() throws IOException {
+        new RecordingFeedSource(url -> new ByteArrayInputStream(
+                PAGE.getBytes(StandardCharsets.UTF_8)), directory).open(URL);
+        FeedSource failing = url -> {
+            throw new IOException("offline");
+        };
+        try {
+            new RecordingFeedSource(failing, directory).open(URL);
+            fail("recording should fail");
+        } catch (IOException e) {
+            assertEquals("offline", e.getMessage());
+        }
+        assertEquals(PAGE, read(new FixtureFeedSource(directory).open(URL)));
+        // no temporary files are left behind
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+    
+    @Test(expected = FileNotFoundException.class)
+    public void failsOnMissingFixture() throws IOException {
+        new FixtureFeedSource(directory).open(URL);
+    }
+}
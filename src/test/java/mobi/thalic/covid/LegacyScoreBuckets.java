@@ -0,0 +1,277 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy of the score boundary algorithm CovidData used before ScoreBuckets,
+ * kept to check and measure ScoreBuckets against
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class LegacyScoreBuckets {
+    
+    /**
+     * Method to create 13 medians
+     * @param list of values sorted in ascending order
+     * @return list of medians
+     * @throws IllegalStateException if a half has a median of zero or less
+     * with a higher value, where the old loop never ended
+     */
+    public static List<Double> createMedians(List<Double> list) {
+        // Create variable for the sum;
+        double sum = 0.0;
+        for (double value : list) {
+            sum += value;
+        }
+        // calculate mean
+        double mean = sum / list.size();
+        // split list
+        List<Double> lowList = new ArrayList<>();
+        List<Double> highList = new ArrayList<>();
+        list.forEach(value -> {
+            if (value < mean) {
+                lowList.add(value);
+            } else {
+                highList.add(value);
+            }
+        });
+        if (lowList.isEmpty() || highList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // get list for the low medians
+        List<Double> lowMedians = getMedians(lowList);
+        List<DoubleInteger> lowMedianCounts = getCounts(lowList, lowMedians);
+        while (lowMedianCounts.size() > 7) {
+            // adjust medians if too many
+            lowMedians = combineSmallest(lowMedianCounts);
+            lowMedianCounts = getCounts(lowList, lowMedians);
+        }
+        while (lowMedianCounts.size() < 7) {
+            // adjust medians if too few
+            lowMedians = splitLargest(lowMedianCounts, lowList);
+            lowMedianCounts = getCounts(lowList, lowMedians);
+        }
+        // get list for the high medians
+        List<Double> highMedians = getMedians(highList);
+        List<DoubleInteger> highMedianCounts = getCounts(highList, 
+                highMedians);
+        while (highMedianCounts.size() > 6) {
+            // adjust medians if too many
+            highMedians = combineSmallest(highMedianCounts);
+            highMedianCounts = getCounts(highList, highMedians);
+        }
+        while (highMedianCounts.size() < 6) {
+            // adjust medians if too few
+            highMedians = splitLargest(highMedianCounts, highList);
+            highMedianCounts = getCounts(highList, highMedians);
+        }
+        // combine medians
+        lowMedians.addAll(highMedians);
+        return lowMedians;
+    }
+    
+    /**
+     * Method to get a score
+     * @param medians to use to find score
+     * @param value to get score for
+     * @return score
+     */
+    public static int getScore(List<Double> medians, double value) {
+        for (int i = 0; i < medians.size(); i++) {
+            if (value < medians.get(i)) {
+                return i + 1;
+            }
+        }
+        return 13;
+    }
+    
+    /**
+     * Method to calculate the median from a list of doubles
+     * @param list of doubles to calculate from
+     * @return the median
+     */
+    private static double calculateMedian(List<Double> list) {
+        if (list.size() % 2 == 0) {
+            // sum two middle entries and divide in half
+            return (list.get((list.size() / 2) - 1) + 
+                    list.get(list.size() / 2)) / 2.0;
+        }
+        // get middle entry
+        return list.get(list.size() / 2);
+    }
+    
+    /**
+     * Method to get the medians of a list
+     * @param list of values
+     * @return a list of medians
+     */
+    private static List<Double> getMedians(List<Double> list) {
+        // get the median from the list of values
+        double median = calculateMedian(list);
+        double last = list.get(list.size() - 1);
+        if (median < 0 || (median == 0 && last > 0)) {
+            throw new IllegalStateException("median " + median + 
+                    " never reaches " + last);
+        }
+        List<Double> medians = new ArrayList<>();
+        // get the highest value and add 0.1
+        double highest = last + 0.1;
+        // Loop through and create the remaining medians
+        double medianSum = median;
+        while (medianSum < last - median) {
+            medians.add(medianSum);
+            medianSum += median;
+        }
+        // add the highest as a median
+        medians.add(highest);
+        return medians;
+    }
+    
+    /**
+     * Method to get number of values per median
+     * @param list of values
+     * @param medians list of medians
+     * @return medians with their counts
+     */
+    private static List<DoubleInteger> getCounts(List<Double> list, 
+            List<Double> medians) {
+        List<DoubleInteger> medianCounts = new ArrayList<>();
+        for (int i = 0; i < medians.size(); i++) {
+            medianCounts.add(new DoubleInteger(medians.get(i), 0));
+        }
+        for (double value : list) {
+            boolean isAssigned = false;
+            // find median value belongs to and increment the count
+            for (int i = 0; i < medians.size(); i++) {
+                if (value < medians.get(i)) {
+                    medianCounts.get(i).setIntValue(
+                            medianCounts.get(i).getIntValue() + 1);
+                    isAssigned = true;
+                    break;
+                }
+            }
+            // if not assigned add to highest
+            if (!isAssigned) {
+                medianCounts.get(medians.size() - 1).setIntValue(
+                        medianCounts.get(medians.size() - 1)
+                                .getIntValue() + 1);
+            }
+        }
+        return medianCounts;
+    }
+    
+    /**
+     * Method to adjust for too many medians
+     * @param medians medians with their counts
+     * @return adjusted medians
+     */
+    private static List<Double> combineSmallest(List<DoubleInteger> medians) {
+        // get largest count
+        int count = 0;
+        for (int i = 0; i < medians.size(); i++) {
+            if (medians.get(i).getIntValue() > count) {
+                count = medians.get(i).getIntValue();
+            }
+        }
+        int smallest = count * 2;
+        int target = 0;
+        for (int i = 0; i < medians.size() - 1; i++) {
+            // find the smallest consecutive counts
+            if (medians.get(i).getIntValue() + 
+                    medians.get(i + 1).getIntValue() < smallest) {
+                smallest = medians.get(i).getIntValue() + 
+                        medians.get(i + 1).getIntValue();
+                target = i;
+            }
+        }
+        // remove target median
+        medians.remove(target);
+        List<Double> finalMedians = new ArrayList<>();
+        for (int i = 0; i < medians.size(); i++) {
+            finalMedians.add(medians.get(i).getDoubleValue());
+        }
+        return finalMedians;
+    }
+    
+    /**
+     * Method to adjust for too few medians
+     * @param medians medians with their counts
+     * @param list of values
+     * @return adjusted medians
+     */
+    private static List<Double> splitLargest(List<DoubleInteger> medians, 
+            List<Double> list) {
+        int largest = 0;
+        double current = 0;
+        double low = 0.0;
+        double high = 0.0;
+        // loop through and find median with the most values
+        for (int i = 0; i < medians.size(); i++) {
+            if (medians.get(i).getIntValue() > largest) {
+                largest = medians.get(i).getIntValue();
+                low = current;
+                high = medians.get(i).getDoubleValue();
+            }
+            current = medians.get(i).getDoubleValue();
+        }
+        List<Double> newMedians = new ArrayList<>();
+        List<Double> tempList = new ArrayList<>();
+        for (int i = 0; i < medians.size(); i++) {
+            if (medians.get(i).getDoubleValue() == low || low == 0) {
+                if (low > 0) {
+                    // add original low median
+                    newMedians.add(low);
+                    for (double value : list) {
+                        if (value > low && value < high) {
+                            tempList.add(value);
+                        }
+                    }
+                    // add middle value of median to be split
+                    newMedians.add((Collections.min(tempList) + 
+                            Collections.max(tempList)) / 2);
+                } else {
+                    for (double value : list) {
+                        if (value >= low && value < high) {
+                            tempList.add(value);
+                        }
+                    }
+                    // add middle value of median to be split
+                    newMedians.add((Collections.min(tempList) + 
+                            Collections.max(tempList)) / 2);
+                    // add lowest median
+                    newMedians.add(high);
+                    // prevent from repeating this option
+                    low = -1;
+                }
+            } else {
+                // add original median
+                newMedians.add(medians.get(i).getDoubleValue());
+            }
+        }
+        return newMedians;
+    }
+}
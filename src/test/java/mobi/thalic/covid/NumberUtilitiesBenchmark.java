@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of round5 against the String.format("%.5f") rounding it 
+ * replaces, run with
+ * mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=NumberUtilitiesBenchmark
+ * @author Gary Larson gary@thalic.mobi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberUtilitiesBenchmark {
+    // Declare member variables
+    private double[] values;
+    
+    @Setup
+    public void setUp() {
+        // percents and averages the size of one calculation run
+        Random random = new Random(6);
+        values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (double) random.nextInt(5000000) / 
+                    (1 + random.nextInt(100000)) * 100;
+        }
+    }
+    
+    @Benchmark
+    public void formatRound(Blackhole blackhole) {
+        for (double value : values) {
+            blackhole.consume(Double.valueOf(String.format(
+                    Locale.getDefault(), "%.5f", value)));
+        }
+    }
+    
+    @Benchmark
+    public void round5(Blackhole blackhole) {
+        for (double value : values) {
+            blackhole.consume(NumberUtilities.round5(value));
+        }
+    }
+}
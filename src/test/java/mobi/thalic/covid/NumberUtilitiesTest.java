@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Locale;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests of the fixed precision number calculations against the 
+ * String.format("%.5f") rounding they replace
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class NumberUtilitiesTest {
+    
+    /**
+     * Method to round the way the calculations did before NumberUtilities
+     * @param value to round
+     * @return rounded value
+     */
+    private static double formatRound(double value) {
+        return Double.valueOf(String.format(Locale.ROOT, "%.5f", value));
+    }
+    
+    @Test
+    public void roundsDecimalTiesAwayFromZero() {
+        assertEquals(0.31517, NumberUtilities.round5(0.315165), 0.0);
+        assertEquals(-0.31517, NumberUtilities.round5(-0.315165), 0.0);
+        assertEquals(1.00001, NumberUtilities.round5(1.000005), 0.0);
+        assertEquals(0.00001, NumberUtilities.round5(0.000005), 0.0);
+        assertEquals(2.67368, NumberUtilities.round5(2.673675), 0.0);
+        assertEquals(12345.12346, NumberUtilities.round5(12345.123455), 0.0);
+    }
+    
+    @Test
+    public void matchesFormatOnDecimalTies() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200000; i++) {
+            double value = Double.parseDouble(random.nextInt(100000000) + 
+                    "5e-" + (6 + random.nextInt(3)));
+            assertEquals(String.valueOf(value), formatRound(value), 
+                    NumberUtilities.round5(value), 0.0);
+        }
+    }
+    
+    @Test
+    public void matchesFormatOnCalculatedValues() {
+        Random random = new Random(6);
+        for (int i = 0; i < 200000; i++) {
+            // percents and 15 or 30 day averages as the calculations make
+            double value = i % 2 == 0 ? 
+                    (double) random.nextInt(1000000) / 
+                            (1 + random.nextInt(100000)) * 100 :
+                    (double) random.nextInt(5000000) / 
+                            (15 + 15 * random.nextInt(2));
+            assertEquals(String.valueOf(value), formatRound(value), 
+                    NumberUtilities.round5(value), 0.0);
+        }
+    }
+    
+    @Test
+    public void doesNotDependOnLocale() {
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            assertEquals(12.34568, NumberUtilities.round5(12.345675), 0.0);
+            assertEquals(33.33333, NumberUtilities.percent(1, 3), 0.0);
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+    
+    @Test
+    public void returnsZeroWithoutDivisor() {
+        assertEquals(0.0, NumberUtilities.percent(5, 0), 0.0);
+        assertEquals(0.0, NumberUtilities.per100k(5, 0), 0.0);
+        assertEquals(50000.0, NumberUtilities.per100k(1, 2), 0.0);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests of the checks that keep a saved window store from being reused 
+ * after the totals it was built from changed
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class RollingWindowStoreTest {
+    
+    /**
+     * Method to create a snapshot of two locations
+     * @param date of the snapshot
+     * @param cases of the first location
+     * @return snapshot
+     */
+    private static RegionSnapshot createSnapshot(String date, long cases) {
+        RegionSnapshot snapshot = new RegionSnapshot(
+                java.sql.Date.valueOf(date));
+        snapshot.add("First", cases, 10L, 5L, 100000L, 1L, 0L);
+        snapshot.add("Second", 200L, 20L, 8L, 300000L, 2L, 1L);
+        return snapshot;
+    }
+    
+    /**
+     * Method to create the digests the database gives for the snapshots
+     * @param cases of the first location on each date
+     * @return digests by epoch day
+     */
+    private static Map<Long, long[]> createDigests(long... cases) {
+        Map<Long, long[]> digests = new HashMap<>();
+        for (int i = 0; i < cases.length; i++) {
+            digests.put(java.sql.Date.valueOf("2021-03-0" + (i + 1))
+                    .toLocalDate().toEpochDay(), 
+                    new long[] {2L, cases[i] + 200L, 30L, 400000L});
+        }
+        return digests;
+    }
+    
+    @Test
+    public void keepsDatesAndDigestsWhenSaved() throws Exception {
+        RollingWindowStore store = new RollingWindowStore();
+        store.add(createSnapshot("2021-03-01", 100L));
+        store.add(createSnapshot("2021-03-02", 150L));
+        Path file = Files.createTempFile("window", ".dat");
+        try {
+            store.save(file);
+            RollingWindowStore loaded = RollingWindowStore.load(file);
+            assertEquals(java.sql.Date.valueOf("2021-03-01"), 
+                    loaded.getOldestDate());
+            assertEquals(java.sql.Date.valueOf("2021-03-02"), 
+                    loaded.getNewestDate());
+            assertTrue(loaded.hasData(java.sql.Date.valueOf("2021-03-02")));
+            assertTrue(loaded.matches(createDigests(100L, 150L)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    public void rejectsChangedTotals() {
+        RollingWindowStore store = new RollingWindowStore();
+        store.add(createSnapshot("2021-03-01", 100L));
+        store.add(createSnapshot("2021-03-02", 150L));
+        // a later update changed the cases of the first date
+        assertFalse(store.matches(createDigests(101L, 150L)));
+        // a location was added to the first date
+        Map<Long, long[]> digests = createDigests(100L, 150L);
+        digests.get(java.sql.Date.valueOf("2021-03-01").toLocalDate()
+                .toEpochDay())[0] = 3L;
+        assertFalse(store.matches(digests));
+        // the totals of a date were removed
+        digests = createDigests(100L, 150L);
+        digests.remove(java.sql.Date.valueOf("2021-03-02").toLocalDate()
+                .toEpochDay());
+        assertFalse(store.matches(digests));
+    }
+    
+    @Test
+    public void emptyStoreHasNoDates() {
+        RollingWindowStore store = new RollingWindowStore();
+        assertEquals(null, store.getNewestDate());
+        assertEquals(null, store.getOldestDate());
+        assertTrue(store.matches(new HashMap<>()));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of ScoreBuckets against the score boundary algorithm it 
+ * replaces, run with
+ * mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=ScoreBucketsBenchmark
+ * @author Gary Larson gary@thalic.mobi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBucketsBenchmark {
+    // Declare member variables
+    private double[] values;
+    private List<Double> list;
+    
+    @Setup
+    public void setUp() {
+        // skewed per 100k values for about as many countries as the world
+        Random random = new Random(11);
+        values = new double[250];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.pow(random.nextDouble(), 4) * 50000;
+        }
+        Arrays.sort(values);
+        list = new ArrayList<>();
+        for (double value : values) {
+            list.add(value);
+        }
+    }
+    
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        List<Double> medians = LegacyScoreBuckets.createMedians(list);
+        for (double value : list) {
+            blackhole.consume(LegacyScoreBuckets.getScore(medians, value));
+        }
+    }
+    
+    @Benchmark
+    public void scoreBuckets(Blackhole blackhole) {
+        double[] boundaries = ScoreBuckets.createBoundaries(values);
+        blackhole.consume(ScoreBuckets.createScores(boundaries, values));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests of the score boundaries against the algorithm CovidData used before
+ * ScoreBuckets
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ScoreBucketsTest {
+    
+    /**
+     * Method to create sorted random values of one of the shapes the
+     * calculations produce
+     * @param random to draw values from
+     * @param shape of the values
+     * @return values sorted in ascending order
+     */
+    private static double[] createValues(Random random, int shape) {
+        double[] values = new double[20 + random.nextInt(250)];
+        double total = 0;
+        for (int i = 0; i < values.length; i++) {
+            switch (shape) {
+                case 0:
+                    // uniform
+                    values[i] = random.nextDouble() * 1000;
+                    break;
+                case 1:
+                    // skewed like per 100k values
+                    values[i] = Math.pow(random.nextDouble(), 4) * 50000;
+                    break;
+                case 2:
+                    // many regions without any
+                    values[i] = random.nextInt(3) == 0 ? 
+                            random.nextDouble() * 100 : 0.0;
+                    break;
+                case 3:
+                    // tiny percents
+                    values[i] = NumberUtilities.round5(
+                            random.nextDouble() * 0.001);
+                    break;
+                case 4:
+                    // small integer counts
+                    values[i] = random.nextInt(6);
+                    break;
+                default:
+                    // running totals
+                    total += random.nextInt(500);
+                    values[i] = total;
+                    break;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+    
+    /**
+     * Method to convert values to the list the old algorithm took
+     * @param values to convert
+     * @return list of values
+     */
+    private static List<Double> toList(double[] values) {
+        List<Double> list = new ArrayList<>();
+        for (double value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+    
+    @Test(timeout = 60000)
+    public void matchesLegacyBoundariesAndScores() {
+        Random random = new Random(11);
+        int compared = 0;
+        for (int i = 0; i < 10000; i++) {
+            double[] values = createValues(random, i % 6);
+            List<Double> medians;
+            try {
+                medians = LegacyScoreBuckets.createMedians(toList(values));
+            } catch (IllegalStateException e) {
+                // the old loop never ended, see belowZeroMedian
+                continue;
+            } catch (NoSuchElementException e) {
+                try {
+                    ScoreBuckets.createBoundaries(values);
+                    fail("Expected NoSuchElementException for " + 
+                            Arrays.toString(values));
+                } catch (NoSuchElementException expected) {
+                    compared++;
+                }
+                continue;
+            }
+            double[] boundaries = ScoreBuckets.createBoundaries(values);
+            String message = Arrays.toString(values);
+            assertEquals(message, medians.size(), boundaries.length);
+            for (int j = 0; j < boundaries.length; j++) {
+                assertEquals(message, medians.get(j), boundaries[j], 0.0);
+            }
+            int[] scores = ScoreBuckets.createScores(boundaries, values);
+            for (int j = 0; j < values.length; j++) {
+                assertEquals(message, 
+                        LegacyScoreBuckets.getScore(medians, values[j]), 
+                        scores[j]);
+            }
+            compared++;
+        }
+        // most inputs must actually be compared
+        assertTrue(String.valueOf(compared), compared > 8000);
+    }
+    
+    @Test
+    public void returnsNothingWhenAllValuesAreEqual() {
+        double[] values = {3.0, 3.0, 3.0, 3.0};
+        assertEquals(0, LegacyScoreBuckets.createMedians(
+                toList(values)).size());
+        assertEquals(0, ScoreBuckets.createBoundaries(values).length);
+    }
+    
+    @Test(timeout = 10000)
+    public void belowZeroMedian() {
+        // the values below the mean are 0, 0 and 12 with a median of zero
+        double[] values = {0, 0, 12, 28, 30, 33, 37, 39};
+        try {
+            LegacyScoreBuckets.createMedians(toList(values));
+            fail("Expected the old median loop to never end");
+        } catch (IllegalStateException expected) {
+            // the old code hung here
+        }
+        // the low half now starts from the single boundary 12 + 0.1
+        double[] boundaries = ScoreBuckets.createBoundaries(values);
+        assertArrayEquals(new double[] {0.0, 6.0, 6.0, 6.0, 6.0, 6.0, 12.1, 
+                28.0, 29.0, 30.5, 33.5, 38.0, 39.1}, boundaries, 0.0);
+        assertArrayEquals(new int[] {2, 2, 7, 9, 10, 11, 12, 13}, 
+                ScoreBuckets.createScores(boundaries, values));
+    }
+    
+    @Test
+    public void getsGrades() {
+        assertEquals("A+", ScoreBuckets.getGrade(1));
+        assertEquals("C+", ScoreBuckets.getGrade(7));
+        assertEquals("F", ScoreBuckets.getGrade(13));
+        assertEquals("ER", ScoreBuckets.getGrade(0));
+        assertEquals("ER", ScoreBuckets.getGrade(14));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Gary Larson gary@thalic.mobi.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package mobi.thalic.covid;
+
+import java.util.Arrays;
+import java.util.List;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ * Tests of the table selection and extraction of the scraped pages on 
+ * fixture html shaped like the pages
+ * @author Gary Larson gary@thalic.mobi
+ */
+public class ScrapeUtilitiesTest {
+    // Declare constant
+    private static final String PAGE = "<html><body>"
+            + "<table id=\"main_table_countries_today\">"
+            + "<thead><tr><th>Country</th><th>Cases</th></tr></thead>"
+            + "<tbody><tr><td>Today</td><td>1</td></tr></tbody></table>"
+            + "<table id=\"main_table_countries_yesterday\">"
+            + "<thead><tr><th>Country</th><th>Cases</th><th>Source</th>"
+            + "<th>Deaths</th><th>Projections</th></tr></thead>"
+            + "<tbody><tr><td>France</td><td>10</td><td>7</td></tr>"
+            + "<tr><td>Spain</td></tr></tbody></table>"
+            + "<table id=\"main_table_countries_yesterday2\">"
+            + "<thead><tr><th>Country</th><th>Cases</th></tr></thead>"
+            + "<tbody><tr><td>Two days</td><td>2</td></tr></tbody></table>"
+            + "</body></html>";
+    
+    /**
+     * Method to extract the selected table of a page
+     * @param html of the page
+     * @param selector of the table
+     * @return rows of the table, the heading first
+     */
+    private static List<List<String>> extract(String html, 
+            TableSelector selector) {
+        Document doc = Jsoup.parse(html);
+        return new ScrapeUtilities().getTableData(doc, selector);
+    }
+    
+    @Test
+    public void selectsLastYesterdayTableNotYesterday2() {
+        List<List<String>> rows = extract(PAGE, 
+                TableSelector.byHtml("yesterday", "yesterday2"));
+        assertEquals("France", rows.get(1).get(0));
+    }
+    
+    @Test
+    public void splitsHeadingFromBodyAndDropsColumns() {
+        List<List<String>> rows = extract(PAGE, 
+                TableSelector.byHtml("yesterday", "yesterday2"));
+        assertEquals(Arrays.asList("Country", "Cases", "Deaths"), 
+                rows.get(0));
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList("France", "10", "7"), rows.get(1));
+    }
+    
+    @Test
+    public void padsShortRowsToHeadingWidth() {
+        List<List<String>> rows = extract(PAGE, 
+                TableSelector.byHtml("yesterday", "yesterday2"));
+        assertEquals(Arrays.asList("Spain", "", ""), rows.get(2));
+    }
+    
+    @Test
+    public void takesFirstRowAsHeadingWithoutThead() {
+        List<List<String>> rows = extract("<table id=\"yesterday\">"
+                + "<tr><th>State</th><th>Cases</th></tr>"
+                + "<tr><td>Ohio</td><td>5</td></tr></table>", 
+                TableSelector.byHtml("yesterday", null));
+        assertEquals(Arrays.asList("State", "Cases"), rows.get(0));
+        assertEquals(Arrays.asList("Ohio", "5"), rows.get(1));
+    }
+    
+    @Test
+    public void matchesAnywhereInTableHtml() {
+        // the marker is not in the id but in the html of the table
+        List<List<String>> rows = extract("<table class=\"yesterday\">"
+                + "<tr><th>Country</th></tr><tr><td>Peru</td></tr></table>", 
+                TableSelector.byHtml("yesterday", "yesterday2"));
+        assertEquals("Peru", rows.get(1).get(0));
+    }
+    
+    @Test
+    public void selectsFirstTableWithMarkerText() {
+        String page = "<table><tr><th>State</th></tr>"
+                + "<tr><td>United States House of Representatives</td></tr>"
+                + "<tr><td>First</td></tr></table>"
+                + "<table id=\"yesterday\"><tr><th>State</th></tr>"
+                + "<tr><td>United States House of Representatives</td></tr>"
+                + "<tr><td>Second</td></tr></table>";
+        List<List<String>> rows = extract(page, 
+                ScrapeUtilities.DEFAULT_SELECTOR);
+        assertEquals("First", rows.get(2).get(0));
+    }
+    
+    @Test
+    public void returnsNullWithoutMatchingTable() {
+        assertNull(extract(PAGE, TableSelector.byMarker("missing")));
+    }
+}